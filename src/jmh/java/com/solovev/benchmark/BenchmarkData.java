@@ -0,0 +1,58 @@
+package com.solovev.benchmark;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic input data for the benchmarks, so every run compares collections on the same elements
+ */
+final class BenchmarkData {
+    /**
+     * Number of precomputed random positions, power of two to cycle them with the mask
+     */
+    static final int POSITIONS_COUNT = 1 << 10;
+    private static final long SEED = 42;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates distinct elements of the given type;
+     * integers are out of the Integer cache, so each of them is the separate object like the strings are
+     *
+     * @param elementType Integer or String
+     * @param count       number of elements
+     * @return array of distinct elements
+     * @throws IllegalArgumentException if element type is unknown
+     */
+    static Object[] elements(String elementType, int count) {
+        Object[] elements = new Object[count];
+        for (int i = 0; i < count; i++) {
+            elements[i] = switch (elementType) {
+                case "Integer" -> Integer.valueOf(1_000 + i);
+                case "String" -> "element-" + i;
+                default -> throw new IllegalArgumentException("Unknown element type " + elementType);
+            };
+        }
+        return elements;
+    }
+
+    /**
+     * @return POSITIONS_COUNT random numbers from 0 to bound exclusive
+     */
+    static int[] positions(int bound) {
+        return new Random(SEED).ints(POSITIONS_COUNT, 0, bound).toArray();
+    }
+
+    /**
+     * @return set of every second element
+     */
+    static Set<Object> everySecond(Object[] elements) {
+        Set<Object> set = new HashSet<>();
+        for (int i = 0; i < elements.length; i += 2) {
+            set.add(elements[i]);
+        }
+        return set;
+    }
+}
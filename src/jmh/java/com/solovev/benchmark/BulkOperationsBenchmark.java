@@ -0,0 +1,52 @@
+package com.solovev.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk removals of MyLinkedList compared with LinkedList, ArrayList and ArrayDeque;
+ * Each invocation removes half of the list, so the list is filled again before every invocation
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkOperationsBenchmark {
+    @Param({"MyLinkedList", "LinkedList", "ArrayList", "ArrayDeque"})
+    private String implementation;
+    @Param({"1000", "100000"})
+    private int size;
+    @Param({"Integer", "String"})
+    private String elementType;
+
+    private Object[] elements;
+    private Set<Object> half;
+    private ListAdapter list;
+
+    @Setup(Level.Trial)
+    public void createElements() {
+        elements = BenchmarkData.elements(elementType, size);
+        half = BenchmarkData.everySecond(elements);
+    }
+
+    @Setup(Level.Invocation)
+    public void fillList() {
+        list = ListAdapter.create(implementation, elements);
+    }
+
+    @Benchmark
+    public ListAdapter removeAll() {
+        list.removeAll(half);
+        return list;
+    }
+
+    @Benchmark
+    public ListAdapter retainAll() {
+        list.retainAll(half);
+        return list;
+    }
+}
@@ -0,0 +1,254 @@
+package com.solovev.benchmark;
+
+import com.solovev.model.MyLinkedList;
+import com.solovev.model.MyList;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Common face of the compared collections, so every benchmark method is written once;
+ * operations which the collection does not have throw UnsupportedOperationException
+ */
+interface ListAdapter extends Iterable<Object> {
+    void add(Object elem);
+
+    void add(int index, Object elem);
+
+    Object get(int index);
+
+    Object remove(int index);
+
+    boolean removeObj(Object elem);
+
+    void removeAll(Set<Object> elements);
+
+    void retainAll(Set<Object> elements);
+
+    int indexOf(Object elem);
+
+    Object poll();
+
+    Object pollLast();
+
+    int size();
+
+    /**
+     * Creates empty collection by its name
+     *
+     * @param implementation one of MyLinkedList, LinkedList, ArrayList, ArrayDeque
+     * @return adapter over the new collection
+     * @throws IllegalArgumentException if implementation is unknown
+     */
+    static ListAdapter create(String implementation) {
+        return switch (implementation) {
+            case "MyLinkedList" -> new MyListAdapter(new MyLinkedList<>());
+            case "LinkedList" -> new JdkListAdapter(new LinkedList<>());
+            case "ArrayList" -> new JdkListAdapter(new ArrayList<>());
+            case "ArrayDeque" -> new DequeAdapter(new ArrayDeque<>());
+            default -> throw new IllegalArgumentException("Unknown implementation " + implementation);
+        };
+    }
+
+    /**
+     * Creates collection by its name and fills it with elements
+     */
+    static ListAdapter create(String implementation, Object[] elements) {
+        ListAdapter adapter = create(implementation);
+        for (Object elem : elements) {
+            adapter.add(elem);
+        }
+        return adapter;
+    }
+
+    record MyListAdapter(MyList<Object> list) implements ListAdapter {
+        @Override
+        public void add(Object elem) {
+            list.add(elem);
+        }
+
+        @Override
+        public void add(int index, Object elem) {
+            list.add(index, elem);
+        }
+
+        @Override
+        public Object get(int index) {
+            return list.get(index);
+        }
+
+        @Override
+        public Object remove(int index) {
+            return list.remove(index);
+        }
+
+        @Override
+        public boolean removeObj(Object elem) {
+            return list.removeObj(elem);
+        }
+
+        @Override
+        public void removeAll(Set<Object> elements) {
+            list.removeAll(elements);
+        }
+
+        @Override
+        public void retainAll(Set<Object> elements) {
+            list.retainAll(elements);
+        }
+
+        @Override
+        public int indexOf(Object elem) {
+            return list.indexOf(elem);
+        }
+
+        @Override
+        public Object poll() {
+            return list.poll();
+        }
+
+        @Override
+        public Object pollLast() {
+            return list.pollLast();
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return list.iterator();
+        }
+    }
+
+    record JdkListAdapter(List<Object> list) implements ListAdapter {
+        @Override
+        public void add(Object elem) {
+            list.add(elem);
+        }
+
+        @Override
+        public void add(int index, Object elem) {
+            list.add(index, elem);
+        }
+
+        @Override
+        public Object get(int index) {
+            return list.get(index);
+        }
+
+        @Override
+        public Object remove(int index) {
+            return list.remove(index);
+        }
+
+        @Override
+        public boolean removeObj(Object elem) {
+            return list.remove(elem);
+        }
+
+        @Override
+        public void removeAll(Set<Object> elements) {
+            list.removeAll(elements);
+        }
+
+        @Override
+        public void retainAll(Set<Object> elements) {
+            list.retainAll(elements);
+        }
+
+        @Override
+        public int indexOf(Object elem) {
+            return list.indexOf(elem);
+        }
+
+        @Override
+        public Object poll() {
+            return list.isEmpty() ? null : list.remove(0);
+        }
+
+        @Override
+        public Object pollLast() {
+            return list.isEmpty() ? null : list.remove(list.size() - 1);
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return list.iterator();
+        }
+    }
+
+    record DequeAdapter(Deque<Object> deque) implements ListAdapter {
+        @Override
+        public void add(Object elem) {
+            deque.add(elem);
+        }
+
+        @Override
+        public void add(int index, Object elem) {
+            throw new UnsupportedOperationException("ArrayDeque has no positional access");
+        }
+
+        @Override
+        public Object get(int index) {
+            throw new UnsupportedOperationException("ArrayDeque has no positional access");
+        }
+
+        @Override
+        public Object remove(int index) {
+            throw new UnsupportedOperationException("ArrayDeque has no positional access");
+        }
+
+        @Override
+        public boolean removeObj(Object elem) {
+            return deque.removeFirstOccurrence(elem);
+        }
+
+        @Override
+        public void removeAll(Set<Object> elements) {
+            deque.removeAll(elements);
+        }
+
+        @Override
+        public void retainAll(Set<Object> elements) {
+            deque.retainAll(elements);
+        }
+
+        @Override
+        public int indexOf(Object elem) {
+            throw new UnsupportedOperationException("ArrayDeque has no positional access");
+        }
+
+        @Override
+        public Object poll() {
+            return deque.poll();
+        }
+
+        @Override
+        public Object pollLast() {
+            return deque.pollLast();
+        }
+
+        @Override
+        public int size() {
+            return deque.size();
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return deque.iterator();
+        }
+    }
+}
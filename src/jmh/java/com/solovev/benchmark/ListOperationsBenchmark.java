@@ -0,0 +1,64 @@
+package com.solovev.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Positional and search operations of MyLinkedList compared with LinkedList and ArrayList;
+ * Every mutating benchmark restores the size with the cheap complementary operation at the end of the list,
+ * so the list stays of the same size during the whole measurement
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListOperationsBenchmark {
+    @Param({"MyLinkedList", "LinkedList", "ArrayList"})
+    private String implementation;
+    @Param({"1000", "100000"})
+    private int size;
+    @Param({"Integer", "String"})
+    private String elementType;
+
+    private Object[] elements;
+    private int[] positions;
+    private int cursor;
+    private ListAdapter list;
+
+    @Setup(Level.Trial)
+    public void createList() {
+        elements = BenchmarkData.elements(elementType, size);
+        positions = BenchmarkData.positions(size);
+        list = ListAdapter.create(implementation, elements);
+    }
+
+    @Benchmark
+    public Object addAtIndex() {
+        list.add(nextPosition(), elements[0]);
+        return list.pollLast();
+    }
+
+    @Benchmark
+    public Object get() {
+        return list.get(nextPosition());
+    }
+
+    @Benchmark
+    public Object removeAtIndex() {
+        Object removed = list.remove(nextPosition());
+        list.add(removed);
+        return removed;
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return list.indexOf(elements[nextPosition()]);
+    }
+
+    private int nextPosition() {
+        return positions[cursor++ & (BenchmarkData.POSITIONS_COUNT - 1)];
+    }
+}
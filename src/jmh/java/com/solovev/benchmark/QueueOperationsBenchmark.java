@@ -0,0 +1,81 @@
+package com.solovev.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appending, queue, iteration and removal by value operations of MyLinkedList
+ * compared with LinkedList, ArrayList and ArrayDeque
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QueueOperationsBenchmark {
+    @Param({"MyLinkedList", "LinkedList", "ArrayList", "ArrayDeque"})
+    private String implementation;
+    @Param({"1000", "100000"})
+    private int size;
+    @Param({"Integer", "String"})
+    private String elementType;
+
+    private Object[] elements;
+    private int[] positions;
+    private int cursor;
+    private ListAdapter list;
+
+    @Setup(Level.Trial)
+    public void createList() {
+        elements = BenchmarkData.elements(elementType, size);
+        positions = BenchmarkData.positions(size);
+        list = ListAdapter.create(implementation, elements);
+    }
+
+    /**
+     * Adds size elements to the empty collection, shows the cost of the growth and the allocation per element
+     */
+    @Benchmark
+    public ListAdapter fill() {
+        return ListAdapter.create(implementation, elements);
+    }
+
+    /**
+     * Queue usage: element goes to the tail and the head is taken
+     */
+    @Benchmark
+    public Object addThenPoll() {
+        list.add(list.poll());
+        return list;
+    }
+
+    /**
+     * Stack usage: element goes to the tail and is taken back from it
+     */
+    @Benchmark
+    public Object addThenPollLast() {
+        list.add(elements[0]);
+        return list.pollLast();
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Object elem : list) {
+            blackhole.consume(elem);
+        }
+    }
+
+    /**
+     * Removes element from random position by value and appends it back
+     */
+    @Benchmark
+    public boolean removeObj() {
+        Object elem = elements[positions[cursor++ & (BenchmarkData.POSITIONS_COUNT - 1)]];
+        boolean removed = list.removeObj(elem);
+        list.add(elem);
+        return removed;
+    }
+}
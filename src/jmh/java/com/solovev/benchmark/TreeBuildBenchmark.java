@@ -0,0 +1,55 @@
+package com.solovev.benchmark;
+
+import com.solovev.model.TreeNode;
+import com.solovev.util.TreeNodeCreator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of TreeNodeCreator.buildTree on the synthetic trees of different shapes;
+ * Each measurement is the single build of the whole tree, so results for the growing number of nodes
+ * form the scaling curve: java -jar target/benchmarks.jar TreeBuild -rf csv -rff tree-build.csv;
+ * Sizes up to 10M nodes are set from the command line, for example -p nodes=1000000,10000000 -jvmArgsAppend -Xmx8g
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreeBuildBenchmark {
+    @Param({"WIDE", "DEEP", "BALANCED", "RANDOM"})
+    private TreeShape shape;
+    @Param({"1000", "10000", "100000"})
+    private int nodes;
+
+    private String input;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void createInput() throws IOException {
+        input = TreeGenerator.input(TreeGenerator.parents(shape, nodes), " ");
+        file = Files.createTempFile("tree", ".txt");
+        Files.writeString(file, input);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public TreeNode buildTree() {
+        return TreeNodeCreator.buildTree(new Scanner(input), " ");
+    }
+
+    @Benchmark
+    public TreeNode buildTreeFromFile() throws IOException {
+        return TreeNodeCreator.buildTree(file, " ");
+    }
+}
@@ -0,0 +1,97 @@
+package com.solovev.benchmark;
+
+import com.solovev.model.TreeNode;
+
+import java.util.Random;
+
+/**
+ * Synthetic trees of the given shape and size for the tree benchmarks;
+ * Tree is described by the array of parents: node i has the name "n" + i and its parent has smaller index,
+ * so nodes can be created and lines of the input can be written in the order of indexes
+ */
+final class TreeGenerator {
+    /**
+     * Children of every node in the balanced tree
+     */
+    static final int BALANCED_FAN_OUT = 4;
+    private static final long SEED = 42;
+
+    private TreeGenerator() {
+    }
+
+    /**
+     * @param shape of the tree
+     * @param nodes number of nodes, including root
+     * @return array where element i is the index of the parent of the node i, -1 for the root
+     */
+    static int[] parents(TreeShape shape, int nodes) {
+        int[] parents = new int[nodes];
+        parents[0] = -1;
+        Random random = new Random(SEED);
+        for (int i = 1; i < nodes; i++) {
+            parents[i] = switch (shape) {
+                case WIDE -> 0;
+                case DEEP -> i - 1;
+                case BALANCED -> (i - 1) / BALANCED_FAN_OUT;
+                case RANDOM -> random.nextInt(i);
+            };
+        }
+        return parents;
+    }
+
+    static String name(int node) {
+        return "n" + node;
+    }
+
+    /**
+     * Creates the tree directly, attaching every new node as a leaf
+     *
+     * @return all nodes of the tree by their indexes, root is the first one
+     */
+    static TreeNode[] createNodes(int[] parents) {
+        TreeNode[] nodes = new TreeNode[parents.length];
+        nodes[0] = new TreeNode(name(0));
+        for (int i = 1; i < parents.length; i++) {
+            nodes[i] = new TreeNode(name(i), nodes[parents[i]]);
+        }
+        return nodes;
+    }
+
+    /**
+     * Writes the tree in the format of TreeNodeCreator.buildTree:
+     * root name in the first line, then one line per node with children: its name and names of the children
+     *
+     * @param parents   array of parents
+     * @param delimiter between words
+     * @return input for the buildTree
+     */
+    static String input(int[] parents, String delimiter) {
+        int nodes = parents.length;
+        //children are grouped by parents with counting sort, so lines go in the order of parent indexes
+        int[] start = new int[nodes + 1];
+        for (int i = 1; i < nodes; i++) {
+            start[parents[i] + 1]++;
+        }
+        for (int i = 0; i < nodes; i++) {
+            start[i + 1] += start[i];
+        }
+        int[] children = new int[nodes];
+        int[] fill = start.clone();
+        for (int i = 1; i < nodes; i++) {
+            children[fill[parents[i]]++] = i;
+        }
+
+        StringBuilder sb = new StringBuilder(nodes * 16);
+        sb.append(name(0));
+        for (int parent = 0; parent < nodes; parent++) {
+            if (start[parent] == start[parent + 1]) {
+                continue;
+            }
+            sb.append('\n').append(name(parent));
+            for (int i = start[parent]; i < start[parent + 1]; i++) {
+                sb.append(delimiter).append(name(children[i]));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.solovev.benchmark;
+
+import com.solovev.model.TreeNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of the TreeNode search, comparison and rendering on the synthetic trees of different shapes;
+ * Searched nodes are taken from the precomputed random positions, so the average cost over the whole tree is measured;
+ * Scaling curve: java -jar target/benchmarks.jar TreeQuery -rf csv -rff tree-query.csv;
+ * Sizes up to 10M nodes are set from the command line, for example -p nodes=1000000,10000000 -jvmArgsAppend -Xmx8g
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreeQueryBenchmark {
+    @Param({"WIDE", "DEEP", "BALANCED", "RANDOM"})
+    private TreeShape shape;
+    @Param({"1000", "10000", "100000"})
+    private int nodes;
+
+    private TreeNode[] tree;
+    /**
+     * Separately created tree of the same structure for equals
+     */
+    private TreeNode copy;
+    private int[] positions;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+    }
+
+    @Setup(Level.Trial)
+    public void createTrees() {
+        int[] parents = TreeGenerator.parents(shape, nodes);
+        tree = TreeGenerator.createNodes(parents);
+        copy = TreeGenerator.createNodes(parents)[0];
+        positions = BenchmarkData.positions(nodes);
+    }
+
+    @Benchmark
+    public Optional<TreeNode> wideSearchByName(Cursor cursor) {
+        return tree[0].wideSearch(TreeGenerator.name(nextPosition(cursor)));
+    }
+
+    /**
+     * Predicate which never matches, so the whole tree is traversed
+     */
+    @Benchmark
+    public Optional<TreeNode> wideSearchByPredicate() {
+        return tree[0].wideSearch(node -> node.getName() == null);
+    }
+
+    /**
+     * The same never matching predicate checked by all workers of the common pool
+     */
+    @Benchmark
+    public Optional<TreeNode> parallelSearchByPredicate() {
+        return tree[0].parallelSearch(node -> node.getName() == null);
+    }
+
+    @Benchmark
+    public boolean contains(Cursor cursor) {
+        return tree[0].contains(tree[nextPosition(cursor)]);
+    }
+
+    @Benchmark
+    public boolean equalsTree() {
+        return tree[0].equals(copy);
+    }
+
+    @Benchmark
+    public int hashCodeTree() {
+        return tree[0].hashCode();
+    }
+
+    @Benchmark
+    public String toStringTree() {
+        return tree[0].toString();
+    }
+
+    private int nextPosition(Cursor cursor) {
+        return positions[cursor.next++ & (BenchmarkData.POSITIONS_COUNT - 1)];
+    }
+}
@@ -0,0 +1,23 @@
+package com.solovev.benchmark;
+
+/**
+ * Shapes of the synthetic trees, public since JMH sets it as the benchmark parameter
+ */
+public enum TreeShape {
+    /**
+     * All nodes are children of the root
+     */
+    WIDE,
+    /**
+     * Every node is the only child of the previous one
+     */
+    DEEP,
+    /**
+     * Every node has TreeGenerator.BALANCED_FAN_OUT children, levels are filled from left to right
+     */
+    BALANCED,
+    /**
+     * Parent of every node is chosen uniformly from the previous nodes
+     */
+    RANDOM
+}
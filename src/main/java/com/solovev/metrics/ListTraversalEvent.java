@@ -0,0 +1,26 @@
+package com.solovev.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of the index navigation or search of the linked list;
+ * stack trace of the event shows the call site
+ */
+@Name("com.solovev.ListTraversal")
+@Label("List Traversal")
+@Category({"MyCollections", "List"})
+@Description("Nodes stepped and elements compared by one operation of the linked list")
+class ListTraversalEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Nodes Stepped")
+    long nodesStepped;
+
+    @Label("Comparisons")
+    long comparisons;
+}
@@ -0,0 +1,126 @@
+package com.solovev.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in instrumentation of the collections: counters and JDK Flight Recorder events;
+ * Turned on by the system property com.solovev.metrics=true, which is read once when the class is loaded;
+ * Callers check ENABLED before recording, it is a constant, so disabled instrumentation is removed by the JIT compiler
+ */
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("com.solovev.metrics");
+
+    /**
+     * Counters summed over all threads and all collections since the start or the last reset
+     */
+    public enum Counter {
+        /**
+         * Nodes stepped over by the index navigation of the linked list
+         */
+        LIST_NODES_STEPPED,
+        /**
+         * Elements compared by the searches of the linked list, for bulk operations every element tested against
+         * the other collection counts once
+         */
+        LIST_COMPARISONS,
+        TREE_SEARCHES,
+        /**
+         * Nodes tested by the tree searches
+         */
+        TREE_NODES_VISITED,
+        TREE_LINES_BUILT,
+        TREE_LINES_NANOS
+    }
+
+    private static final Map<Counter, LongAdder> COUNTERS = new EnumMap<>(Counter.class);
+
+    static {
+        for (Counter counter : Counter.values()) {
+            COUNTERS.put(counter, new LongAdder());
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Records index navigation or search of the linked list
+     *
+     * @param operation    name of the list method
+     * @param nodesStepped number of nodes stepped over
+     * @param comparisons  number of compared elements
+     */
+    public static void recordListTraversal(String operation, long nodesStepped, long comparisons) {
+        COUNTERS.get(Counter.LIST_NODES_STEPPED).add(nodesStepped);
+        COUNTERS.get(Counter.LIST_COMPARISONS).add(comparisons);
+        ListTraversalEvent event = new ListTraversalEvent();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.nodesStepped = nodesStepped;
+            event.comparisons = comparisons;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records search of the tree
+     *
+     * @param operation    name of the tree method
+     * @param nodesVisited number of tested nodes
+     * @param found        true if node was found
+     */
+    public static void recordTreeSearch(String operation, long nodesVisited, boolean found) {
+        COUNTERS.get(Counter.TREE_SEARCHES).increment();
+        COUNTERS.get(Counter.TREE_NODES_VISITED).add(nodesVisited);
+        TreeSearchEvent event = new TreeSearchEvent();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.nodesVisited = nodesVisited;
+            event.found = found;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records line added to the tree by the tree builder
+     *
+     * @param startNanos value of System.nanoTime before the line was processed
+     * @param words      number of words in the line
+     */
+    public static void recordTreeLine(long startNanos, int words) {
+        long nanos = System.nanoTime() - startNanos;
+        COUNTERS.get(Counter.TREE_LINES_BUILT).increment();
+        COUNTERS.get(Counter.TREE_LINES_NANOS).add(nanos);
+        TreeLineEvent event = new TreeLineEvent();
+        if (event.shouldCommit()) {
+            event.words = words;
+            event.lineNanos = nanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return current value of the counter
+     */
+    public static long get(Counter counter) {
+        return COUNTERS.get(counter).sum();
+    }
+
+    /**
+     * @return current values of all counters
+     */
+    public static Map<Counter, Long> snapshot() {
+        Map<Counter, Long> snapshot = new EnumMap<>(Counter.class);
+        COUNTERS.forEach((counter, adder) -> snapshot.put(counter, adder.sum()));
+        return snapshot;
+    }
+
+    /**
+     * Sets all counters to 0; values recorded concurrently with the reset may be lost
+     */
+    public static void reset() {
+        COUNTERS.values().forEach(LongAdder::reset);
+    }
+}
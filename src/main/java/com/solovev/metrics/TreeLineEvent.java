@@ -0,0 +1,27 @@
+package com.solovev.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event of one line added to the tree by the tree builder;
+ * lines are many, so stack traces are not recorded
+ */
+@Name("com.solovev.TreeLine")
+@Label("Tree Line")
+@Category({"MyCollections", "Tree"})
+@Description("Time spent to add one line to the tree")
+@StackTrace(false)
+class TreeLineEvent extends Event {
+    @Label("Words")
+    int words;
+
+    @Label("Line Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long lineNanos;
+}
@@ -0,0 +1,25 @@
+package com.solovev.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of the tree search; stack trace of the event shows the call site
+ */
+@Name("com.solovev.TreeSearch")
+@Label("Tree Search")
+@Category({"MyCollections", "Tree"})
+@Description("Nodes tested by one search of the tree")
+class TreeSearchEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Nodes Visited")
+    long nodesVisited;
+
+    @Label("Found")
+    boolean found;
+}
@@ -0,0 +1,123 @@
+package com.solovev.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the whole tree for the ancestor queries;
+ * Nodes are numbered in the depth first pre order, so the subtree of a node is the interval of numbers
+ * from the node to its last descendant and the ancestor test takes constant time;
+ * Ancestors of every node on the distances of powers of two (binary lifting) give the lowest common ancestor in O(log n);
+ * Index is immutable, tree drops it on any change of its structure and builds it again on the next query
+ */
+final class AncestorIndex {
+    private static final int NO_NODE = -1;
+
+    private final Map<TreeNode, Integer> ids;
+    private final TreeNode[] nodes;
+    private final int[] depths;
+    /**
+     * Number of the last descendant of the node in the pre order
+     */
+    private final int[] lastDescendants;
+    /**
+     * jumps[k][id] is the number of the ancestor on the distance 2^k, NO_NODE if there is no such ancestor
+     */
+    private final int[][] jumps;
+
+    /**
+     * Builds index of the tree in O(n log(depth)) time
+     *
+     * @param root of the tree
+     */
+    AncestorIndex(TreeNode root) {
+        List<TreeNode> preOrder = new ArrayList<>();
+        Deque<TreeNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            TreeNode node = stack.pop();
+            preOrder.add(node);
+            TreeNode.ChildList children = node.childList();
+            for (int i = children.slots() - 1; i >= 0; i--) { //reversed, so the first child is taken first
+                if (children.slot(i) != null) {
+                    stack.push(children.slot(i));
+                }
+            }
+        }
+
+        int size = preOrder.size();
+        nodes = preOrder.toArray(new TreeNode[0]);
+        ids = new IdentityHashMap<>(size);
+        depths = new int[size];
+        int[] parents = new int[size];
+        int maxDepth = 0;
+        for (int id = 0; id < size; id++) {
+            ids.put(nodes[id], id);
+            //parent goes before its children in the pre order, so its number is already known
+            parents[id] = id == 0 ? NO_NODE : ids.get(nodes[id].getParent());
+            depths[id] = id == 0 ? 0 : depths[parents[id]] + 1;
+            maxDepth = Math.max(maxDepth, depths[id]);
+        }
+
+        lastDescendants = new int[size];
+        for (int id = size - 1; id >= 0; id--) { //descendants go after the node, so they are counted first
+            lastDescendants[id] = Math.max(lastDescendants[id], id);
+            if (parents[id] != NO_NODE) {
+                lastDescendants[parents[id]] = Math.max(lastDescendants[parents[id]], lastDescendants[id]);
+            }
+        }
+
+        int levels = 32 - Integer.numberOfLeadingZeros(maxDepth); //jumps longer than the depth are never needed
+        jumps = new int[Math.max(levels, 1)][];
+        jumps[0] = parents;
+        for (int k = 1; k < jumps.length; k++) {
+            int[] previous = jumps[k - 1];
+            int[] current = new int[size];
+            for (int id = 0; id < size; id++) {
+                current[id] = previous[id] == NO_NODE ? NO_NODE : previous[previous[id]];
+            }
+            jumps[k] = current;
+        }
+    }
+
+    /**
+     * @return true if the first node is the second one or its ancestor; both nodes must be in the indexed tree
+     */
+    boolean isAncestorOrSelf(TreeNode ancestor, TreeNode node) {
+        return isAncestorOrSelf(ids.get(ancestor), ids.get(node));
+    }
+
+    int depth(TreeNode node) {
+        return depths[ids.get(node)];
+    }
+
+    /**
+     * @return the deepest node which is the ancestor or self for both nodes; both nodes must be in the indexed tree
+     */
+    TreeNode lowestCommonAncestor(TreeNode first, TreeNode second) {
+        int firstId = ids.get(first);
+        int secondId = ids.get(second);
+        if (isAncestorOrSelf(firstId, secondId)) {
+            return first;
+        }
+        if (isAncestorOrSelf(secondId, firstId)) {
+            return second;
+        }
+        //climbs from the first node to the highest ancestor which is still not the ancestor of the second one
+        for (int k = jumps.length - 1; k >= 0; k--) {
+            int jump = jumps[k][firstId];
+            if (jump != NO_NODE && !isAncestorOrSelf(jump, secondId)) {
+                firstId = jump;
+            }
+        }
+        return nodes[jumps[0][firstId]];
+    }
+
+    private boolean isAncestorOrSelf(int ancestorId, int nodeId) {
+        return ancestorId <= nodeId && nodeId <= lastDescendants[ancestorId];
+    }
+}
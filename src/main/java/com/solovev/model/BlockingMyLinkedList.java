@@ -0,0 +1,459 @@
+package com.solovev.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded blocking FIFO queue with MyLinkedList add/poll semantics for producer consumer pipelines;
+ * Head and tail are guarded by separate locks, so producers and consumers do not contend with each other;
+ * Batch operations transfer many elements under one lock acquisition and one signal;
+ * Null elements are not permitted
+ *
+ * @param <E> type of the elements
+ */
+public class BlockingMyLinkedList<E> implements Iterable<E> {
+    private final int capacity;
+    private final AtomicInteger count = new AtomicInteger();
+    /**
+     * Dummy node, the first element is in its next node
+     */
+    private QueueNode<E> head = new QueueNode<>(null);
+    private QueueNode<E> last = head;
+    private final ReentrantLock takeLock = new ReentrantLock();
+    private final Condition notEmpty = takeLock.newCondition();
+    private final ReentrantLock putLock = new ReentrantLock();
+    private final Condition notFull = putLock.newCondition();
+
+    public BlockingMyLinkedList() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param capacity maximal number of elements in the queue
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public BlockingMyLinkedList(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive but was " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds data to the end of the queue
+     *
+     * @param elem to add
+     * @throws IllegalStateException if the queue is full
+     * @throws NullPointerException  if element is null
+     */
+    public void add(E elem) {
+        if (!offer(elem)) {
+            throw new IllegalStateException("Queue is full");
+        }
+    }
+
+    /**
+     * Adds data to the end of the queue if it is not full
+     *
+     * @param elem to add
+     * @return true if element was added, false if the queue is full
+     * @throws NullPointerException if element is null
+     */
+    public boolean offer(E elem) {
+        Objects.requireNonNull(elem);
+        if (count.get() == capacity) {
+            return false;
+        }
+        int oldCount = -1;
+        putLock.lock();
+        try {
+            if (count.get() < capacity) {
+                enqueue(elem);
+                oldCount = count.getAndIncrement();
+                if (oldCount + 1 < capacity) {
+                    notFull.signal();
+                }
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (oldCount == 0) {
+            signalNotEmpty();
+        }
+        return oldCount >= 0;
+    }
+
+    /**
+     * Adds data to the end of the queue, waiting up to the timeout for the free space
+     *
+     * @param elem    to add
+     * @param timeout how long to wait
+     * @param unit    of the timeout
+     * @return true if element was added, false if timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NullPointerException if element is null
+     */
+    public boolean offer(E elem, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(elem);
+        long nanos = unit.toNanos(timeout);
+        int oldCount;
+        putLock.lockInterruptibly();
+        try {
+            while (count.get() == capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueue(elem);
+            oldCount = count.getAndIncrement();
+            if (oldCount + 1 < capacity) {
+                notFull.signal();
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (oldCount == 0) {
+            signalNotEmpty();
+        }
+        return true;
+    }
+
+    /**
+     * Adds data to the end of the queue, waiting for the free space if necessary
+     *
+     * @param elem to add
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NullPointerException if element is null
+     */
+    public void put(E elem) throws InterruptedException {
+        Objects.requireNonNull(elem);
+        int oldCount;
+        putLock.lockInterruptibly();
+        try {
+            while (count.get() == capacity) {
+                notFull.await();
+            }
+            enqueue(elem);
+            oldCount = count.getAndIncrement();
+            if (oldCount + 1 < capacity) {
+                notFull.signal();
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (oldCount == 0) {
+            signalNotEmpty();
+        }
+    }
+
+    /**
+     * Adds as many elements as the free space allows under one lock acquisition, without waiting
+     *
+     * @param elements to add, iteration stops when the queue is full
+     * @return number of added elements
+     * @throws NullPointerException if any of added elements is null
+     */
+    public int offerAll(Iterable<? extends E> elements) {
+        int added = 0;
+        int oldCount = -1;
+        putLock.lock();
+        try {
+            int free = capacity - count.get();
+            //elements linked before the null element or the exception of the iterator stay in the queue and are counted
+            try {
+                Iterator<? extends E> iterator = elements.iterator();
+                while (added < free && iterator.hasNext()) {
+                    enqueue(Objects.requireNonNull(iterator.next()));
+                    added++;
+                }
+            } finally {
+                if (added > 0) {
+                    oldCount = count.getAndAdd(added);
+                    if (oldCount + added < capacity) {
+                        notFull.signal();
+                    }
+                }
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (oldCount == 0) {
+            signalNotEmpty();
+        }
+        return added;
+    }
+
+    /**
+     * return and deletes the first element in the queue
+     *
+     * @return first element in the queue or null if queue is empty
+     */
+    public E poll() {
+        if (count.get() == 0) {
+            return null;
+        }
+        E polled = null;
+        int oldCount = -1;
+        takeLock.lock();
+        try {
+            if (count.get() > 0) {
+                polled = dequeue();
+                oldCount = count.getAndDecrement();
+                if (oldCount > 1) {
+                    notEmpty.signal();
+                }
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (oldCount == capacity) {
+            signalNotFull();
+        }
+        return polled;
+    }
+
+    /**
+     * return and deletes the first element in the queue, waiting up to the timeout for the element
+     *
+     * @param timeout how long to wait
+     * @param unit    of the timeout
+     * @return first element in the queue or null if timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        E polled;
+        int oldCount;
+        takeLock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            polled = dequeue();
+            oldCount = count.getAndDecrement();
+            if (oldCount > 1) {
+                notEmpty.signal();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (oldCount == capacity) {
+            signalNotFull();
+        }
+        return polled;
+    }
+
+    /**
+     * return and deletes the first element in the queue, waiting for the element if necessary
+     *
+     * @return first element in the queue
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public E take() throws InterruptedException {
+        E polled;
+        int oldCount;
+        takeLock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                notEmpty.await();
+            }
+            polled = dequeue();
+            oldCount = count.getAndDecrement();
+            if (oldCount > 1) {
+                notEmpty.signal();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (oldCount == capacity) {
+            signalNotFull();
+        }
+        return polled;
+    }
+
+    /**
+     * Moves all available elements to the collection under one lock acquisition, without waiting
+     *
+     * @param collection to add elements to
+     * @return number of moved elements
+     */
+    public int drainTo(Collection<? super E> collection) {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Moves up to max available elements to the collection under one lock acquisition, without waiting
+     *
+     * @param collection  to add elements to
+     * @param maxElements maximal number of elements to move
+     * @return number of moved elements
+     */
+    public int drainTo(Collection<? super E> collection, int maxElements) {
+        if (maxElements <= 0) {
+            return 0;
+        }
+        int drained = 0;
+        int oldCount = -1;
+        takeLock.lock();
+        try {
+            int toDrain = Math.min(maxElements, count.get());
+            //elements are removed from the queue only after they were added to the collection
+            try {
+                while (drained < toDrain) {
+                    collection.add(head.next.data);
+                    dequeue();
+                    drained++;
+                }
+            } finally {
+                if (drained > 0) {
+                    oldCount = count.getAndAdd(-drained);
+                    if (oldCount - drained > 0) {
+                        notEmpty.signal();
+                    }
+                }
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (oldCount == capacity) {
+            signalNotFull();
+        }
+        return drained;
+    }
+
+    /**
+     * Gets the first element in queue without deleting it, null if queue is empty
+     *
+     * @return first element in queue without deleting it, null if queue is empty
+     */
+    public E peek() {
+        if (count.get() == 0) {
+            return null;
+        }
+        takeLock.lock();
+        try {
+            QueueNode<E> first = head.next;
+            return first == null ? null : first.data;
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    /**
+     * Method to see size of the queue
+     *
+     * @return size of the queue
+     */
+    public int size() {
+        return count.get();
+    }
+
+    /**
+     * @return number of elements which can be added without waiting
+     */
+    public int remainingCapacity() {
+        return capacity - count.get();
+    }
+
+    /**
+     * Iterator over the snapshot of the queue taken under both locks;
+     * removal through the iterator is not supported
+     */
+    @Override
+    public Iterator<E> iterator() {
+        List<E> snapshot = new ArrayList<>();
+        putLock.lock();
+        takeLock.lock();
+        try {
+            for (QueueNode<E> node = head.next; node != null; node = node.next) {
+                snapshot.add(node.data);
+            }
+        } finally {
+            takeLock.unlock();
+            putLock.unlock();
+        }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    /**
+     * Links node at the end of the queue, must be called under the put lock
+     */
+    private void enqueue(E elem) {
+        last = last.next = new QueueNode<>(elem);
+    }
+
+    /**
+     * Unlinks the first node of the queue, must be called under the take lock
+     *
+     * @return element of the first node
+     */
+    private E dequeue() {
+        QueueNode<E> oldHead = head;
+        QueueNode<E> first = head.next;
+        oldHead.next = oldHead; //helps GC, unlinked node does not reference the queue
+        head = first;
+        E elem = first.data;
+        first.data = null;
+        return elem;
+    }
+
+    private void signalNotEmpty() {
+        takeLock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    private void signalNotFull() {
+        putLock.lock();
+        try {
+            notFull.signal();
+        } finally {
+            putLock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        Iterator<E> iterator = this.iterator();
+        String delimiter = ", ";
+
+        while (iterator.hasNext()) {
+            sb.append(iterator.next());
+            if (iterator.hasNext()) {
+                sb.append(delimiter);
+            }
+        }
+
+        return "BlockingMyLinkedList{" +
+                sb +
+                '}';
+    }
+
+    /**
+     * Node of the singly linked queue
+     */
+    private static class QueueNode<E> {
+        private E data;
+        private QueueNode<E> next;
+
+        private QueueNode(E data) {
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.solovev.model;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe variant of the MyLinkedList queue operations;
+ * Insertion and removal at both ends are lock free (compare and set based), so no external synchronization is needed;
+ * Null elements are not permitted
+ *
+ * @param <E> type of the elements
+ */
+public class ConcurrentMyLinkedList<E> implements Iterable<E> {
+    private final ConcurrentLinkedDeque<E> deque = new ConcurrentLinkedDeque<>();
+    /**
+     * Counter of elements, striped between threads to avoid contention on one variable
+     */
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Adds data to the end of the list
+     *
+     * @param elem to add
+     * @throws NullPointerException if element is null
+     */
+    public void add(E elem) {
+        deque.addLast(elem);
+        size.increment();
+    }
+
+    /**
+     * Adds element as first element in list
+     *
+     * @param elem element to add
+     * @throws NullPointerException if element is null
+     */
+    public void addFirst(E elem) {
+        deque.addFirst(elem);
+        size.increment();
+    }
+
+    /**
+     * Adds element as last element in collection
+     *
+     * @param elem element to add
+     * @throws NullPointerException if element is null
+     */
+    public void addLast(E elem) {
+        this.add(elem);
+    }
+
+    /**
+     * return and deletes the first element in the list
+     *
+     * @return first element in the queue or null if collection is empty
+     */
+    public E poll() {
+        E polled = deque.pollFirst();
+        if (polled != null) {
+            size.decrement();
+        }
+        return polled;
+    }
+
+    /**
+     * return and deletes the last element in the list
+     *
+     * @return last element in the queue or null if collection is empty
+     */
+    public E pollLast() {
+        E polled = deque.pollLast();
+        if (polled != null) {
+            size.decrement();
+        }
+        return polled;
+    }
+
+    /**
+     * Gets the first element in queue without deleting it, null if queue is empty
+     *
+     * @return first element in queue without deleting it, null if queue is empty
+     */
+    public E peek() {
+        return deque.peekFirst();
+    }
+
+    /**
+     * Gets the last element in queue without deleting it, null if queue is empty
+     *
+     * @return last element in queue without deleting it, null if queue is empty
+     */
+    public E peekLast() {
+        return deque.peekLast();
+    }
+
+    /**
+     * Removes first occurrence of the element from the collection
+     *
+     * @param elem to remove
+     * @return true if element was successfully removed, false if it is not presented in the collection
+     */
+    public boolean removeObj(E elem) {
+        boolean removed = elem != null && deque.removeFirstOccurrence(elem);
+        if (removed) {
+            size.decrement();
+        }
+        return removed;
+    }
+
+    /**
+     * Searches for given element in the collection
+     *
+     * @param elem to search for
+     * @return true if element is presented false otherwise
+     */
+    public boolean contains(E elem) {
+        return elem != null && deque.contains(elem);
+    }
+
+    /**
+     * Size of the collection in constant time;
+     * Exact when no modifications are in progress, under concurrent modifications it is an estimate
+     *
+     * @return size of the collection
+     */
+    public int size() {
+        return (int) Math.max(0, size.sum());
+    }
+
+    /**
+     * @return true if there are no elements at the moment of the call
+     */
+    public boolean isEmpty() {
+        return deque.isEmpty();
+    }
+
+    /**
+     * Weakly consistent iterator: it never throws because of concurrent modifications
+     * and returns elements existing at some point at or since its creation;
+     * removal through the iterator is not supported
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return Collections.unmodifiableCollection(deque).iterator();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        Iterator<E> iterator = this.iterator();
+        String delimiter = ", ";
+
+        while (iterator.hasNext()) {
+            sb.append(iterator.next());
+            if (iterator.hasNext()) {
+                sb.append(delimiter);
+            }
+        }
+
+        return "ConcurrentMyLinkedList{" +
+                sb +
+                '}';
+    }
+}
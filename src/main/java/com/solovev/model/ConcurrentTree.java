@@ -0,0 +1,245 @@
+package com.solovev.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Tree shared by writing and reading threads;
+ * All changes go through this class under one lock, so every change, or every batch of changes given to update,
+ * is atomic for the readers;
+ * Readers never see the mutable nodes: after every change the writer publishes the immutable TreeSnapshot
+ * through a volatile field, so searches and iteration take no locks, never wait for the writers and are never torn;
+ * New snapshot shares all unchanged subtrees with the previous one, so the writer copies only the changed nodes
+ * and their ancestors, each with the array of its children; batching changes of the wide nodes with update
+ * keeps the copying rare;
+ * With every snapshot the writer publishes the persistent map of the numbers of the names,
+ * changed only for the copied nodes, so contains takes constant time
+ */
+public class ConcurrentTree {
+    private final TreeNode root;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    /**
+     * Snapshot of the current tree and its names, replaced together after every change
+     */
+    private volatile Published published;
+    private volatile long version;
+
+    /**
+     * @param rootName name of the root of the new empty tree
+     */
+    public ConcurrentTree(String rootName) {
+        this(new TreeNode(rootName));
+    }
+
+    /**
+     * Takes the tree over, it must not be changed directly after that
+     *
+     * @param root of the tree, it stays the root
+     * @throws IllegalArgumentException if node has a parent
+     */
+    public ConcurrentTree(TreeNode root) {
+        if (root.getParent() != null) {
+            throw new IllegalArgumentException("Node " + root.getName() + " is not the root of its tree");
+        }
+        this.root = root;
+        TreeSnapshot snapshot = root.snapshot();
+        NameCounts names = NameCounts.EMPTY;
+        for (TreeSnapshot node : snapshot) {
+            names = names.add(node.getName(), 1);
+        }
+        published = new Published(snapshot, names);
+    }
+
+    /**
+     * Performs the changes of the tree atomically: readers see either none or all of them;
+     * changes made before the exception thrown by the action stay in the tree
+     *
+     * @param action changing the tree, gets the root; nodes it gets must not be kept after it returns
+     */
+    public void update(Consumer<TreeNode> action) {
+        writeLock.lock();
+        try {
+            action.accept(root);
+        } finally {
+            changed();
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Appends the new node with the given name to the first node with the parent name in the wide search order
+     *
+     * @param parentName name of the node to append to
+     * @param childName  name of the new node
+     * @return true if the new node was appended, false if there is no node with the parent name
+     */
+    public boolean appendChild(String parentName, String childName) {
+        writeLock.lock();
+        try {
+            Optional<TreeNode> parent = root.wideSearch(parentName);
+            if (parent.isEmpty()) {
+                return false;
+            }
+            parent.get().appendChild(new TreeNode(childName));
+            changed();
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the first node with the name to the first node with the parent name, both found in the wide search order
+     *
+     * @param name       of the node to move, root cannot be moved
+     * @param parentName name of the new parent
+     * @return true if node was moved, false if any node was not found, node is the root or parent is in its subtree
+     */
+    public boolean setParent(String name, String parentName) {
+        writeLock.lock();
+        try {
+            Optional<TreeNode> node = root.wideSearch(name);
+            Optional<TreeNode> parent = root.wideSearch(parentName);
+            if (node.isEmpty() || parent.isEmpty() || node.get() == root || !node.get().setParent(parent.get())) {
+                return false;
+            }
+            changed();
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Gets consistent copy of the current tree without locking, readers search and iterate it
+     *
+     * @return snapshot which is never changed by the writers
+     */
+    public TreeSnapshot snapshot() {
+        return published.snapshot;
+    }
+
+    /**
+     * @return number of changes made to the tree, every call of update counts as one change
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return number of nodes in the tree
+     */
+    public int size() {
+        return published.snapshot.size();
+    }
+
+    /**
+     * Looks the name up in the map published with the snapshot, takes constant time
+     *
+     * @return true if any node in the tree has the name
+     */
+    public boolean contains(String name) {
+        return published.names.count(name) > 0;
+    }
+
+    /**
+     * Gets names on the path from the first node with the name in the wide search order to the root
+     *
+     * @param name of the node to start from
+     * @return names from the node to the root, both inclusive, or empty list if there is no node with the name
+     */
+    public List<String> pathToRoot(String name) {
+        List<String> path = new ArrayList<>();
+        for (TreeSnapshot node : published.snapshot.pathToRoot(node -> Objects.equals(node.getName(), name))) {
+            path.add(node.getName());
+        }
+        return path;
+    }
+
+    /**
+     * Publishes the snapshot of the changed tree with its names; must be called under the lock
+     */
+    private void changed() {
+        version++;
+        List<TreeSnapshot> created = new ArrayList<>();
+        TreeSnapshot snapshot = root.snapshot(created);
+        Published previous = published;
+        if (created.isEmpty()) {
+            return; //nothing was changed
+        }
+        published = new Published(snapshot, countNames(previous, created));
+    }
+
+    /**
+     * Changes the numbers of the names only for the nodes which were copied or dropped:
+     * nodes of the previous snapshot are dropped if they are not shared with the new one,
+     * and all the shared nodes are the children of the copied nodes;
+     * a shared child is found when the previous snapshot is walked through the dropped nodes,
+     * the child which is not found there was not in the previous tree at all and all its subtree is added
+     *
+     * @param previous published snapshot and its names
+     * @param created  nodes copied for the new snapshot, its root is among them
+     * @return names of the new snapshot
+     */
+    private static NameCounts countNames(Published previous, List<TreeSnapshot> created) {
+        NameCounts names = previous.names;
+        Set<TreeSnapshot> copied = Collections.newSetFromMap(new IdentityHashMap<>());
+        copied.addAll(created);
+        Set<TreeSnapshot> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (TreeSnapshot node : created) {
+            names = names.add(node.getName(), 1);
+            for (TreeSnapshot child : node.getChildren()) {
+                if (!copied.contains(child)) {
+                    shared.add(child);
+                }
+            }
+        }
+        //root is always copied, so the previous root is dropped
+        Deque<TreeSnapshot> dropped = new ArrayDeque<>(List.of(previous.snapshot));
+        while (!dropped.isEmpty()) {
+            TreeSnapshot node = dropped.pop();
+            names = names.add(node.getName(), -1);
+            for (TreeSnapshot child : node.getChildren()) {
+                if (!shared.remove(child)) {
+                    dropped.push(child);
+                }
+            }
+        }
+        for (TreeSnapshot attached : shared) {
+            for (TreeSnapshot node : attached) {
+                names = names.add(node.getName(), 1);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * The same format as the TreeNode has
+     */
+    @Override
+    public String toString() {
+        return published.snapshot.toString();
+    }
+
+    /**
+     * Snapshot and the numbers of its names, published by one volatile write
+     */
+    private static final class Published {
+        private final TreeSnapshot snapshot;
+        private final NameCounts names;
+
+        private Published(TreeSnapshot snapshot, NameCounts names) {
+            this.snapshot = snapshot;
+            this.names = names;
+        }
+    }
+}
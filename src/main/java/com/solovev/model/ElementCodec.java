@@ -0,0 +1,84 @@
+package com.solovev.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes elements of the off-heap list to the fixed number of bytes and decodes them back
+ *
+ * @param <E> type of the elements
+ */
+public interface ElementCodec<E> {
+    ElementCodec<Integer> INTEGER = new ElementCodec<>() {
+        @Override
+        public int size() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Integer elem) {
+            buffer.putInt(offset, elem);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    ElementCodec<Long> LONG = new ElementCodec<>() {
+        @Override
+        public int size() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Long elem) {
+            buffer.putLong(offset, elem);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    ElementCodec<Double> DOUBLE = new ElementCodec<>() {
+        @Override
+        public int size() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Double elem) {
+            buffer.putDouble(offset, elem);
+        }
+
+        @Override
+        public Double read(ByteBuffer buffer, int offset) {
+            return buffer.getDouble(offset);
+        }
+    };
+
+    /**
+     * @return number of bytes every encoded element takes
+     */
+    int size();
+
+    /**
+     * Writes element to the buffer, must write exactly size() bytes
+     *
+     * @param buffer to write to
+     * @param offset absolute position in the buffer
+     * @param elem   element to write
+     */
+    void write(ByteBuffer buffer, int offset, E elem);
+
+    /**
+     * Reads element written by write
+     *
+     * @param buffer to read from
+     * @param offset absolute position in the buffer
+     * @return decoded element
+     */
+    E read(ByteBuffer buffer, int offset);
+}
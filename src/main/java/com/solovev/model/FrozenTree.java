@@ -0,0 +1,297 @@
+package com.solovev.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.function.Predicate;
+
+/**
+ * Read only compact copy of the tree;
+ * Nodes are numbered from 0 in the order of the wide search, so the root is 0 and searches are plain scans of arrays;
+ * Structure is kept in int arrays of parents, first children and next siblings,
+ * every distinct name is kept once in the name table and nodes refer to it by number;
+ * Names are numbered in the order of their first occurrence and found by the open addressing hash table of ints,
+ * so the tree keeps no boxed numbers and no map entries
+ */
+public class FrozenTree implements Iterable<Integer>, NumberedTree {
+    private final int[] parents;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+    private final int[] nameIds;
+    private final String[] names;
+    /**
+     * Hash table of the names: first node in the wide search order with the name + 1 or 0 for the empty slot,
+     * linear probing by the String hash code of the name, size is the power of two at least twice bigger than names
+     */
+    private final int[] nameTable;
+
+    /**
+     * Copies the subtree of the node, node becomes the root of the frozen tree
+     *
+     * @param root of the subtree to copy
+     */
+    public FrozenTree(TreeNode root) {
+        List<TreeNode> order = new ArrayList<>();
+        order.add(root);
+        String[] names = new String[16];
+        int nameCount = 0;
+        int[] nameTable = new int[32];
+        int size = 0;
+        int[] parents = new int[16];
+        int[] nameIds = new int[16];
+        parents[0] = NO_NODE;
+        //nodes are added to the order when their parent is taken from it, as in the wide search
+        for (int node = 0; node < order.size(); node++, size++) {
+            TreeNode treeNode = order.get(node);
+            List<TreeNode> children = treeNode.getChildren();
+            if (order.size() + children.size() > parents.length) {
+                int capacity = Math.max(parents.length * 2, order.size() + children.size());
+                parents = Arrays.copyOf(parents, capacity);
+                nameIds = Arrays.copyOf(nameIds, capacity);
+            }
+            for (TreeNode child : children) {
+                parents[order.size()] = node;
+                order.add(child);
+            }
+            String name = treeNode.getName();
+            int slot = findSlot(nameTable, name, names, nameIds);
+            if (nameTable[slot] == 0) {
+                if (nameCount == names.length) {
+                    names = Arrays.copyOf(names, nameCount * 2);
+                }
+                names[nameCount] = name;
+                nameTable[slot] = node + 1;
+                nameIds[node] = nameCount++;
+                if (nameCount * 2 > nameTable.length) {
+                    nameTable = rehash(nameTable, names, nameIds);
+                }
+            } else {
+                nameIds[node] = nameIds[nameTable[slot] - 1];
+            }
+            order.set(node, null); //copied node is not needed any more
+        }
+
+        this.parents = Arrays.copyOf(parents, size);
+        this.nameIds = Arrays.copyOf(nameIds, size);
+        this.names = Arrays.copyOf(names, nameCount);
+        this.nameTable = nameTable;
+        firstChildren = new int[size];
+        nextSiblings = new int[size];
+        Arrays.fill(firstChildren, NO_NODE);
+        Arrays.fill(nextSiblings, NO_NODE);
+        //children of one parent have consecutive numbers
+        for (int node = size - 1; node >= 0; node--) {
+            int parent = this.parents[node];
+            if (parent != NO_NODE) {
+                nextSiblings[node] = node + 1 < size && this.parents[node + 1] == parent ? node + 1 : NO_NODE;
+                firstChildren[parent] = node;
+            }
+        }
+    }
+
+    /**
+     * @return number of nodes
+     */
+    @Override
+    public int size() {
+        return parents.length;
+    }
+
+    /**
+     * @return number of distinct names
+     */
+    public int nameCount() {
+        return names.length;
+    }
+
+    @Override
+    public String getName(int node) {
+        return names[nameIds[checkNode(node)]];
+    }
+
+    /**
+     * @return number of the name of the node, names are numbered from 0 in the order of their first occurrence
+     */
+    public int getNameId(int node) {
+        return nameIds[checkNode(node)];
+    }
+
+    /**
+     * @param nameId number of the name from 0 to nameCount exclusive
+     * @return the name with this number
+     */
+    public String getNameById(int nameId) {
+        return names[nameId];
+    }
+
+    /**
+     * Copies the hash table of the names, so the file formats can store it as is;
+     * slot has the number of the name + 1 or 0 if it is empty, the name is looked for from nameSlot by linear probing
+     *
+     * @return new array of the power of two size at least twice bigger than the number of names
+     */
+    public int[] copyNameTable() {
+        int[] table = new int[nameTable.length];
+        for (int slot = 0; slot < table.length; slot++) {
+            int entry = nameTable[slot];
+            table[slot] = entry == 0 ? 0 : nameIds[entry - 1] + 1;
+        }
+        return table;
+    }
+
+    /**
+     * @param tableSize power of two size of the name table
+     * @return slot from which the name is looked for in the name table
+     */
+    public static int nameSlot(String name, int tableSize) {
+        return slot(name, tableSize - 1);
+    }
+
+    /**
+     * @return parent of the node or NO_NODE for the root
+     */
+    public int getParent(int node) {
+        return parents[checkNode(node)];
+    }
+
+    /**
+     * @return first child of the node or NO_NODE if node has no children
+     */
+    @Override
+    public int getFirstChild(int node) {
+        return firstChildren[checkNode(node)];
+    }
+
+    /**
+     * @return next child of the parent of this node or NO_NODE if node is the last child or the root
+     */
+    @Override
+    public int getNextSibling(int node) {
+        return nextSiblings[checkNode(node)];
+    }
+
+    /**
+     * Searches tree from top to bottom and from one to left, takes constant time
+     *
+     * @param nameToFind to check
+     * @return first found node with this name or NO_NODE if nothing was found
+     */
+    public int wideSearch(String nameToFind) {
+        return nameTable[findSlot(nameTable, nameToFind, names, nameIds)] - 1;
+    }
+
+    /**
+     * Searches tree from top to bottom and from one to left;
+     * predicate is checked at most once for every distinct name
+     *
+     * @param namePredicate for the name of the node to check
+     * @return first found node for which name predicate is true or NO_NODE if nothing was found
+     */
+    public int wideSearch(Predicate<String> namePredicate) {
+        //names are numbered in the order of their first occurrence, so the first fitting name is the first fitting node
+        for (int nameId = 0; nameId < names.length; nameId++) {
+            if (namePredicate.test(names[nameId])) {
+                return wideSearch(names[nameId]);
+            }
+        }
+        return NO_NODE;
+    }
+
+    /**
+     * Creates mutable copy of this tree
+     *
+     * @return root of the new tree
+     */
+    public TreeNode toTreeNode() {
+        TreeNode[] nodes = new TreeNode[size()];
+        for (int node = 0; node < nodes.length; node++) {
+            nodes[node] = new TreeNode(getName(node));
+            if (parents[node] != NO_NODE) {
+                nodes[parents[node]].appendChild(nodes[node]);
+            }
+        }
+        return nodes[0];
+    }
+
+    /**
+     * Provides wide going iterator over the numbers of the nodes
+     *
+     * @return iterator over numbers from 0 to size exclusive
+     */
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size();
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return next++;
+            }
+        };
+    }
+
+    /**
+     * Finds slot of the name in the name table by linear probing
+     *
+     * @param names   known names by their number
+     * @param nameIds number of the name by node, filled for all nodes in the table
+     * @return slot with the name or the empty slot where it must be put
+     */
+    private static int findSlot(int[] nameTable, String name, String[] names, int[] nameIds) {
+        int mask = nameTable.length - 1;
+        int slot = slot(name, mask);
+        while (nameTable[slot] != 0 && !Objects.equals(names[nameIds[nameTable[slot] - 1]], name)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * @return table twice bigger than the given one with the same entries
+     */
+    private static int[] rehash(int[] table, String[] names, int[] nameIds) {
+        int[] rehashed = new int[table.length * 2];
+        int mask = rehashed.length - 1;
+        for (int entry : table) {
+            if (entry != 0) {
+                int slot = slot(names[nameIds[entry - 1]], mask);
+                while (rehashed[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                rehashed[slot] = entry;
+            }
+        }
+        return rehashed;
+    }
+
+    private static int slot(String name, int mask) {
+        int hash = Objects.hashCode(name);
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private int checkNode(int node) {
+        if (node < 0 || node >= size()) {
+            throw new IndexOutOfBoundsException("Node " + node + " is not in the tree of size " + size());
+        }
+        return node;
+    }
+
+    /**
+     * The same format as the TreeNode has
+     */
+    @Override
+    public String toString() {
+        return NumberedTree.toString(this);
+    }
+}
@@ -0,0 +1,221 @@
+package com.solovev.model;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * List with logarithmic positional operations;
+ * Elements are kept in the treap (randomized balanced binary tree) ordered by position,
+ * every node knows the size of its subtree, so add, remove and get by index take O(log n) expected time
+ * and iteration visits elements in the list order;
+ * Treap is shared with MyPersistentList, this list owns all its nodes, so they are changed in place
+ *
+ * @param <E> type of the elements
+ */
+public class MyIndexedList<E> implements MyList<E> {
+    private TreapNode<E> root;
+    /**
+     * Owner of all nodes of the list
+     */
+    private final Object owner = new Object();
+
+    /**
+     * Adds data to list
+     *
+     * @param elem to add
+     */
+    @Override
+    public void add(E elem) {
+        add(size(), elem);
+    }
+
+    /**
+     * Adds element on the place of the index
+     *
+     * @param index to place element
+     * @param elem  element to put
+     * @throws IndexOutOfBoundsException if index is < 0 or more than size of the collection
+     */
+    @Override
+    public void add(int index, E elem) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        root = TreapNode.insert(root, index, new TreapNode<>(elem, owner), owner);
+    }
+
+    /**
+     * Adds element as first element in list
+     *
+     * @param elem element to add
+     */
+    @Override
+    public void addFirst(E elem) {
+        add(0, elem);
+    }
+
+    /**
+     * Adds all to the collection, beggining with specified index;
+     * elements are built into the separate tree in linear time and then joined with this one
+     *
+     * @param index    to start
+     * @param elements elements to add
+     * @throws IndexOutOfBoundsException if index is < 0 or more than size of the collection
+     */
+    @Override
+    public void addAll(int index, Iterable<E> elements) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        TreapNode<E> added = TreapNode.build(elements, owner);
+        if (added == null) {
+            return;
+        }
+        TreapNode<E>[] parts = TreapNode.split(root, index, owner);
+        root = TreapNode.merge(TreapNode.merge(parts[0], added, owner), parts[1], owner);
+    }
+
+    @Override
+    public void addAll(Iterable<E> elements) {
+        addAll(size(), elements);
+    }
+
+    /**
+     * Removes element with given index
+     *
+     * @param index to remove element
+     * @return removed element
+     * @throws IndexOutOfBoundsException if index is < 0 or >= size of the collection
+     */
+    @Override
+    public E remove(int index) {
+        E removed = get(index); //index is checked in get
+        root = TreapNode.delete(root, index, owner);
+        return removed;
+    }
+
+    @Override
+    public E poll() {
+        return size() == 0 ? null : remove(0);
+    }
+
+    @Override
+    public E pollLast() {
+        return size() == 0 ? null : remove(size() - 1);
+    }
+
+    /**
+     * Gets element on the given index
+     *
+     * @param index of the element to get
+     * @return element on the given index
+     * @throws IndexOutOfBoundsException if index is < 0 or more than size of the collection
+     */
+    @Override
+    public E get(int index) {
+        checkIndex(index);
+        return TreapNode.find(root, index);
+    }
+
+    @Override
+    public int size() {
+        return TreapNode.size(root);
+    }
+
+    /**
+     * Method to iterate throw collection in the list order; iterator supports removal
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            /**
+             * Node to return next on the top, below are ancestors whose elements go after it
+             */
+            final Deque<TreapNode<E>> path = new ArrayDeque<>();
+            int nextIndex;
+            boolean canRemove;
+
+            {
+                seek(0);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                TreapNode<E> node = path.pop();
+                for (TreapNode<E> next = node.right; next != null; next = next.left) {
+                    path.push(next);
+                }
+                nextIndex++;
+                canRemove = true;
+                return node.data;
+            }
+
+            @Override
+            public void remove() {
+                if (!canRemove) {
+                    throw new IllegalStateException();
+                }
+                MyIndexedList.this.remove(--nextIndex);
+                seek(nextIndex); //tree was restructured, path is rebuilt
+                canRemove = false;
+            }
+
+            private void seek(int index) {
+                path.clear();
+                TreapNode<E> node = root;
+                while (node != null) {
+                    int leftSize = TreapNode.size(node.left);
+                    if (index < leftSize) {
+                        path.push(node);
+                        node = node.left;
+                    } else if (index == leftSize) {
+                        path.push(node);
+                        return;
+                    } else {
+                        index -= leftSize + 1;
+                        node = node.right;
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Checks index and throws if the index is < 0 or >= size of the collection
+     *
+     * @param index to check
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        Iterator<E> iterator = this.iterator();
+        String delimiter = ", ";
+
+        while (iterator.hasNext()) {
+            sb.append(iterator.next());
+            if (iterator.hasNext()) {
+                sb.append(delimiter);
+            }
+        }
+
+        return "MyIndexedList{" +
+                sb +
+                '}';
+    }
+}
@@ -1,14 +1,64 @@
 package com.solovev.model;
 
-import java.util.Iterator;
-import java.util.Objects;
-import java.util.function.BiFunction;
-
-public class MyLinkedList<E> implements Iterable<E> {
-    private final static int INT_IF_NOT_FOUND = -1;
+import com.solovev.metrics.Metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+public class MyLinkedList<E> implements MyList<E> {
+    private final static int FINGERS_COUNT = 4;
+    /**
+     * Bulk operations with more arguments than this copy them to the temporary hash set
+     */
+    private final static int HASHING_THRESHOLD = 16;
     private Node<E> firstNode;
     private Node<E> lastNode;
     private int size;
+    /**
+     * Recently visited nodes and their indexes, used as start points for the index navigation;
+     * null node means the finger is not set
+     */
+    @SuppressWarnings("unchecked")
+    private final Node<E>[] fingerNodes = new Node[FINGERS_COUNT];
+    private final int[] fingerIndexes = new int[FINGERS_COUNT];
+    private int fingerToReplace;
+    /**
+     * Maximal number of removed nodes kept for reuse, 0 if recycling is off
+     */
+    private final int nodePoolCapacity;
+    /**
+     * Removed nodes ready for reuse, linked through next node
+     */
+    private Node<E> pooledNodes;
+    private int pooledNodesCount;
+    private long poolHits;
+    private long poolMisses;
+
+    public MyLinkedList() {
+        this(0);
+    }
+
+    /**
+     * Creates list which recycles removed nodes: poll, pollLast and remove put nodes to the bounded pool
+     * and adding takes them back instead of allocating new ones, so steady queue usage does not allocate;
+     * Note: nodes obtained from getNode must not be kept after their elements were removed
+     *
+     * @param nodePoolCapacity maximal number of nodes kept for reuse, 0 turns recycling off
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public MyLinkedList(int nodePoolCapacity) {
+        if (nodePoolCapacity < 0) {
+            throw new IllegalArgumentException("Node pool capacity cannot be negative: " + nodePoolCapacity);
+        }
+        this.nodePoolCapacity = nodePoolCapacity;
+    }
 
     /**
      * Adds data to list
@@ -16,15 +66,7 @@ public class MyLinkedList<E> implements Iterable<E> {
      * @param elem to add
      */
     public void add(E elem) {
-        Node<E> nodeToAdd = new Node<>(null, null, elem);
-        if (firstNode == null) {
-            firstNode = nodeToAdd;
-        } else {
-            nodeToAdd.setPrevNode(lastNode);
-            lastNode.setNextNode(nodeToAdd);
-        }
-        lastNode = nodeToAdd;
-        size++;
+        linkBefore(elem, null, size);
     }
 
     /**
@@ -37,15 +79,8 @@ public class MyLinkedList<E> implements Iterable<E> {
     public void add(int index, E elem) {
         if (index == size) {
             this.addLast(elem);
-        } else if (index == 0) {
-            this.addFirst(elem);
         } else {
-            Node<E> nodeAtPosition = getNode(index); //index is checked in this method
-            Node<E> nodeToInsert = new Node<>(nodeAtPosition.getPrevNode(), nodeAtPosition, elem);
-
-            nodeAtPosition.getPrevNode().setNextNode(nodeToInsert);
-            nodeAtPosition.setPrevNode(nodeToInsert);
-            size++;
+            linkBefore(elem, getNode(index), index); //index is checked in getNode
         }
     }
 
@@ -55,10 +90,7 @@ public class MyLinkedList<E> implements Iterable<E> {
      * @param elem element to add
      */
     public void addFirst(E elem) {
-        Node<E> nodeToAdd = new Node<>(null, firstNode, elem);
-        firstNode.setPrevNode(nodeToAdd);
-        firstNode = nodeToAdd;
-        size++;
+        linkBefore(elem, firstNode, 0);
     }
 
     /**
@@ -86,12 +118,13 @@ public class MyLinkedList<E> implements Iterable<E> {
      * @param elements elements to add
      */
     public void addAll(int index, Iterable<E> elements) {
+        Node<E> successor = null;
         if (index != size) {
-            checkIndex(index);
+            successor = getNode(index); //index is checked in getNode
         }
         int counter = index;
         for (E element : elements) {
-            this.add(counter++, element);
+            linkBefore(element, successor, counter++);
         }
     }
 
@@ -102,43 +135,80 @@ public class MyLinkedList<E> implements Iterable<E> {
      * @return removed element
      */
     public E remove(int index) {
-        checkIndex(index);
-        if (index == 0) {
-            return this.poll();
-        } else if (index + 1 == size) { // +1 since index starts from 0
-            return this.pollLast();
-        } else {
-            Node<E> oldNode = this.getNode(index);
-            //rebinds prev node to next and next to prev
-            oldNode.getPrevNode().setNextNode(oldNode.getNextNode());
-            oldNode.getNextNode().setPrevNode(oldNode.getPrevNode());
-
-            size--;
-            return oldNode.getData();
-        }
+        return unlink(this.getNode(index), index); //index is checked in getNode
     }
 
     /**
-     * Removes element from the collection
+     * Removes first occurrence of the element from the collection in one pass
      *
      * @param elem to remove
-     * @return true if element was successfully removed, false if it is presented in the collection
+     * @return true if element was successfully removed, false if it is not presented in the collection
      */
     public boolean removeObj(E elem) {
-        int index = this.indexOf(elem);
-        if (index != INT_IF_NOT_FOUND) {
-            this.remove(index);
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()) {
+            if (Objects.equals(iterator.next(), elem)) {
+                iterator.remove();
+                return true;
+            }
         }
-        return index != INT_IF_NOT_FOUND;
+        return false;
     }
 
     /**
-     * removes from this collection all elements found in the given collection
+     * removes from this collection all elements found in the given collection;
+     * every element of the given collection removes one its first occurrence, as removeObj does,
+     * but the whole removal is done in one pass
      *
      * @param elements to remove
      */
     public void removeAll(Iterable<E> elements) {
-        elements.forEach(this::removeObj);
+        Collection<E> toRemove = copyOf(elements);
+        if (toRemove.isEmpty()) {
+            return;
+        }
+        Iterator<E> iterator = iterator();
+        if (toRemove.size() > HASHING_THRESHOLD) {
+            Map<E, Integer> occurrences = new HashMap<>();
+            toRemove.forEach(elem -> occurrences.merge(elem, 1, Integer::sum));
+            while (!occurrences.isEmpty() && iterator.hasNext()) {
+                E elem = iterator.next();
+                Integer left = occurrences.get(elem);
+                if (left != null) {
+                    iterator.remove();
+                    if (left == 1) {
+                        occurrences.remove(elem);
+                    } else {
+                        occurrences.put(elem, left - 1);
+                    }
+                }
+            }
+        } else {
+            List<E> left = new ArrayList<>(toRemove);
+            while (!left.isEmpty() && iterator.hasNext()) {
+                if (left.remove(iterator.next())) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all elements matching the filter in one pass
+     *
+     * @param filter to test elements
+     * @return true if any element was removed
+     */
+    public boolean removeIf(Predicate<? super E> filter) {
+        boolean removed = false;
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()) {
+            if (filter.test(iterator.next())) {
+                iterator.remove();
+                removed = true;
+            }
+        }
+        return removed;
     }
 
     /**
@@ -147,17 +217,7 @@ public class MyLinkedList<E> implements Iterable<E> {
      * @return first element in the queue or null if collection is empty
      */
     public E poll() {
-        if (size == 0) {
-            return null;
-        }
-        Node<E> oldElement = firstNode;
-        firstNode = oldElement.getNextNode();
-        if (firstNode != null) {
-            firstNode.setPrevNode(null);
-        }
-        size--;
-        return oldElement.getData();
-
+        return size == 0 ? null : unlink(firstNode, 0);
     }
 
     /**
@@ -166,14 +226,7 @@ public class MyLinkedList<E> implements Iterable<E> {
      * @return last element in the queue or null if collection is empty
      */
     public E pollLast() {
-        if (size == 0) {
-            return null;
-        }
-        Node<E> oldElement = lastNode;
-        lastNode = oldElement.getPrevNode();
-        lastNode.setNextNode(null);
-        size--;
-        return oldElement.getData();
+        return size == 0 ? null : unlink(lastNode, size - 1);
     }
 
     /**
@@ -193,7 +246,7 @@ public class MyLinkedList<E> implements Iterable<E> {
      * @return first element in queue without deleting it, null if queue is empty
      */
     public E peek() {
-        return size > 0 ? this.get(0) : null;
+        return size > 0 ? firstNode.getData() : null;
     }
 
     /**
@@ -202,7 +255,7 @@ public class MyLinkedList<E> implements Iterable<E> {
      * @return last element in queue without deleting it, null if queue is empty
      */
     public E peekLast() {
-        return size > 0 ? this.get(size - 1) : null; //-1 since index starts from 0
+        return size > 0 ? lastNode.getData() : null;
     }
 
     /**
@@ -214,10 +267,16 @@ public class MyLinkedList<E> implements Iterable<E> {
     public int indexOf(E elem) {
         Iterator<E> iterator = iterator();
         for (int i = 0; iterator.hasNext(); i++) {
-            if (iterator.next().equals(elem)) {
+            if (Objects.equals(iterator.next(), elem)) {
+                if (Metrics.ENABLED) {
+                    Metrics.recordListTraversal("indexOf", i, i + 1);
+                }
                 return i;
             }
         }
+        if (Metrics.ENABLED) {
+            Metrics.recordListTraversal("indexOf", size, size);
+        }
         return INT_IF_NOT_FOUND; // if reached, means elem not found
     }
 
@@ -232,18 +291,28 @@ public class MyLinkedList<E> implements Iterable<E> {
     }
 
     /**
-     * Searches for all elements from given collection in this collection
+     * Searches for all elements from given collection in this collection;
+     * walks this collection once, crossing out found elements
      *
      * @param elems collection to search
      * @return true if all elements in param collection are presented in the underlying collection
      */
     public boolean containsAll(Iterable<E> elems) {
-        for (E elem : elems) {
-            if (!this.contains(elem)) {
-                return false;
+        Collection<E> toFind = copyOf(elems);
+        Iterator<E> iterator = iterator();
+        if (toFind.size() > HASHING_THRESHOLD) {
+            Set<E> notFound = new HashSet<>(toFind);
+            while (!notFound.isEmpty() && iterator.hasNext()) {
+                notFound.remove(iterator.next());
             }
+            return notFound.isEmpty();
         }
-        return true;
+        List<E> notFound = new ArrayList<>(toFind);
+        while (!notFound.isEmpty() && iterator.hasNext()) {
+            E elem = iterator.next();
+            notFound.removeIf(e -> Objects.equals(e, elem));
+        }
+        return notFound.isEmpty();
     }
 
     /**
@@ -252,24 +321,36 @@ public class MyLinkedList<E> implements Iterable<E> {
      * @param elements to keep all matching elements from
      */
     public void retainAll(Iterable<E> elements) {
-        BiFunction<Iterable<E>, E, Boolean> contains = (iter, elem) -> { //todo Better here or in separate method?
-            for (E e : iter) {
-                if (Objects.equals(e, elem)) {
-                    return true;
-                }
-            }
-            return false;
-        };
+        Collection<E> toKeep = copyOf(elements);
+        if (toKeep.size() > HASHING_THRESHOLD && !(toKeep instanceof Set)) {
+            toKeep = new HashSet<>(toKeep);
+        }
+        int traversed = size; //every node is stepped and checked once
+        removeIf(Predicate.not(toKeep::contains));
+        if (Metrics.ENABLED) {
+            Metrics.recordListTraversal("retainAll", traversed, traversed);
+        }
+    }
 
-        for (E elem : this) {
-            if (!contains.apply(elements, elem)) {
-                this.removeObj(elem);
-            }
+    /**
+     * Gives collection view of the iterable, copying it only if it is not a collection already
+     *
+     * @param elements to view
+     * @return given iterable or its copy
+     */
+    private static <T> Collection<T> copyOf(Iterable<T> elements) {
+        if (elements instanceof Collection<T> collection) {
+            return collection;
         }
+        List<T> copy = new ArrayList<>();
+        elements.forEach(copy::add);
+        return copy;
     }
 
     /**
-     * Gets Node element on the given index
+     * Gets Node element on the given index;
+     * Navigation starts from the closest of the list ends and recently visited nodes,
+     * so sequential and nearby-index access takes amortized constant time
      *
      * @param index of the element to get
      * @return Node element on the given index
@@ -278,12 +359,158 @@ public class MyLinkedList<E> implements Iterable<E> {
     public Node<E> getNode(int index) {
         checkIndex(index);
         Node<E> currentNode = firstNode;
-        for (int i = 0; i < index; i++) {//can be done with iterator
+        int currentIndex = 0;
+        if (size - 1 - index < index) {
+            currentNode = lastNode;
+            currentIndex = size - 1;
+        }
+        int fingerSlot = -1;
+        for (int slot = 0; slot < FINGERS_COUNT; slot++) {
+            if (fingerNodes[slot] != null
+                    && Math.abs(fingerIndexes[slot] - index) < Math.abs(currentIndex - index)) {
+                currentNode = fingerNodes[slot];
+                currentIndex = fingerIndexes[slot];
+                fingerSlot = slot;
+            }
+        }
+        if (Metrics.ENABLED) {
+            Metrics.recordListTraversal("getNode", Math.abs(currentIndex - index), 0);
+        }
+        for (; currentIndex < index; currentIndex++) {
             currentNode = currentNode.getNextNode();
         }
+        for (; currentIndex > index; currentIndex--) {
+            currentNode = currentNode.getPrevNode();
+        }
+        //ends of the list are always known, so they are not remembered
+        if (index != 0 && index != size - 1) {
+            if (fingerSlot == -1) {
+                fingerSlot = fingerToReplace;
+                fingerToReplace = (fingerToReplace + 1) % FINGERS_COUNT;
+            }
+            fingerNodes[fingerSlot] = currentNode;
+            fingerIndexes[fingerSlot] = index;
+        }
         return currentNode;
     }
 
+    /**
+     * Creates node with the element and links it before successor
+     *
+     * @param elem      to add
+     * @param successor node to link before, or null to link as the last node
+     * @param index     index the new node will have
+     */
+    private void linkBefore(E elem, Node<E> successor, int index) {
+        Node<E> predecessor = successor == null ? lastNode : successor.getPrevNode();
+        Node<E> nodeToAdd = newNode(predecessor, successor, elem);
+        if (predecessor == null) {
+            firstNode = nodeToAdd;
+        } else {
+            predecessor.setNextNode(nodeToAdd);
+        }
+        if (successor == null) {
+            lastNode = nodeToAdd;
+        } else {
+            successor.setPrevNode(nodeToAdd);
+        }
+        size++;
+        //nodes starting from the index moved one position right
+        for (int slot = 0; slot < FINGERS_COUNT; slot++) {
+            if (fingerNodes[slot] != null && fingerIndexes[slot] >= index) {
+                fingerIndexes[slot]++;
+            }
+        }
+    }
+
+    /**
+     * Unlinks node from the list, rebinds prev node to next and next to prev
+     *
+     * @param node  to unlink
+     * @param index of the node
+     * @return data of the unlinked node
+     */
+    private E unlink(Node<E> node, int index) {
+        Node<E> prev = node.getPrevNode();
+        Node<E> next = node.getNextNode();
+        if (prev == null) {
+            firstNode = next;
+        } else {
+            prev.setNextNode(next);
+        }
+        if (next == null) {
+            lastNode = prev;
+        } else {
+            next.setPrevNode(prev);
+        }
+        node.setPrevNode(null);
+        node.setNextNode(null);
+        size--;
+        for (int slot = 0; slot < FINGERS_COUNT; slot++) {
+            if (fingerNodes[slot] == node) {
+                fingerNodes[slot] = null;
+            } else if (fingerNodes[slot] != null && fingerIndexes[slot] > index) {
+                fingerIndexes[slot]--;
+            }
+        }
+        E data = node.getData();
+        recycle(node);
+        return data;
+    }
+
+    /**
+     * Takes node from the pool if it is not empty, or allocates new one
+     */
+    private Node<E> newNode(Node<E> prevNode, Node<E> nextNode, E data) {
+        if (pooledNodes == null) {
+            if (nodePoolCapacity > 0) {
+                poolMisses++;
+            }
+            return new Node<>(prevNode, nextNode, data);
+        }
+        Node<E> node = pooledNodes;
+        pooledNodes = node.getNextNode();
+        pooledNodesCount--;
+        poolHits++;
+        node.setPrevNode(prevNode);
+        node.setNextNode(nextNode);
+        node.setData(data);
+        return node;
+    }
+
+    /**
+     * Puts unlinked node to the pool if it is not full; data is cleared so the pool does not keep elements alive
+     */
+    private void recycle(Node<E> node) {
+        if (pooledNodesCount < nodePoolCapacity) {
+            node.setData(null);
+            node.setNextNode(pooledNodes);
+            pooledNodes = node;
+            pooledNodesCount++;
+        }
+    }
+
+    /**
+     * @return number of added elements which reused pooled nodes
+     */
+    public long getPoolHits() {
+        return poolHits;
+    }
+
+    /**
+     * @return number of added elements which allocated new nodes while recycling is on
+     */
+    public long getPoolMisses() {
+        return poolMisses;
+    }
+
+    /**
+     * @return number of nodes currently kept for reuse
+     */
+    public int getPooledNodesCount() {
+        return pooledNodesCount;
+    }
+
     /**
      * Checks index and throws if the index is < 0 or >= size of the collection
      *
@@ -305,42 +532,223 @@ public class MyLinkedList<E> implements Iterable<E> {
     }
 
     /**
-     * Method to iterate throw collection
+     * Method to iterate throw collection; iterator supports removal
      */
     @Override
     public Iterator<E> iterator() {
-        return new Iterator<E>() {
-            Node<E> nextNode = firstNode;
+        return listIterator();
+    }
+
+    /**
+     * Bidirectional iterator starting from the first element
+     *
+     * @return list iterator with constant time remove, set and add at the cursor
+     */
+    public ListIterator<E> listIterator() {
+        return listIterator(0);
+    }
+
+    /**
+     * Bidirectional iterator starting from the given index
+     *
+     * @param index of the element to be returned by the first call of next
+     * @return list iterator with constant time remove, set and add at the cursor
+     * @throws IndexOutOfBoundsException if index is < 0 or more than size of the collection
+     */
+    public ListIterator<E> listIterator(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new ListIterator<>() {
+            Node<E> nextNode = index == size ? null : getNode(index);
+            int nextIndex = index;
+            Node<E> lastReturned;
 
             @Override
             public boolean hasNext() {
-                return Objects.nonNull(nextNode);
+                return nextIndex < size;
             }
 
             @Override
             public E next() {
-                Node<E> returnNode = nextNode;
-                nextNode = hasNext() ? returnNode.getNextNode() : null;
-                return returnNode.getData();
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = nextNode;
+                nextNode = nextNode.getNextNode();
+                nextIndex++;
+                return lastReturned.getData();
+            }
+
+            @Override
+            public boolean hasPrevious() {
+                return nextIndex > 0;
+            }
+
+            @Override
+            public E previous() {
+                if (!hasPrevious()) {
+                    throw new NoSuchElementException();
+                }
+                nextNode = nextNode == null ? lastNode : nextNode.getPrevNode();
+                lastReturned = nextNode;
+                nextIndex--;
+                return lastReturned.getData();
+            }
+
+            @Override
+            public int nextIndex() {
+                return nextIndex;
+            }
+
+            @Override
+            public int previousIndex() {
+                return nextIndex - 1;
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                if (lastReturned == nextNode) { //was returned by previous
+                    nextNode = lastReturned.getNextNode();
+                    unlink(lastReturned, nextIndex);
+                } else {
+                    unlink(lastReturned, --nextIndex);
+                }
+                lastReturned = null;
+            }
+
+            @Override
+            public void set(E elem) {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                lastReturned.setData(elem);
+            }
+
+            @Override
+            public void add(E elem) {
+                linkBefore(elem, nextNode, nextIndex++);
+                lastReturned = null;
             }
         };
     }
 
+    /**
+     * Spliterator which splits the list in halves, walking every half only once;
+     * list must not be modified while the spliterator is in use
+     *
+     * @return ordered, sized and subsized spliterator
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new NodeSpliterator<>(firstNode, size);
+    }
+
+    /**
+     * Writes the same text as toString to the output element by element, the whole text is never kept in memory
+     *
+     * @param out to write to
+     * @throws IOException if output cannot be written
+     */
+    public void writeTo(Appendable out) throws IOException {
+        String delimiter = ", ";
+        out.append("MyLinkedList{");
+        for (Node<E> node = firstNode; node != null; node = node.getNextNode()) {
+            out.append(String.valueOf(node.getData()));
+            if (node.getNextNode() != null) {
+                out.append(delimiter);
+            }
+        }
+        out.append('}');
+    }
+
+    /**
+     * Writes the same text as toString to the channel in UTF-8 through the buffer of the fixed size;
+     * channel is not closed
+     *
+     * @param channel to write to
+     * @throws IOException if channel cannot be written
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+        writeTo(writer);
+        writer.flush();
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        Iterator<E> iterator = this.iterator();
-        String delimiter = ", ";
+        try {
+            writeTo(sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); //StringBuilder does not throw
+        }
+        return sb.toString();
+    }
 
-        while (iterator.hasNext()) {
-            sb.append(iterator.next());
-            if (iterator.hasNext()) {
-                sb.append(delimiter);
+    /**
+     * Spliterator over the given number of nodes starting from the given node
+     */
+    private static class NodeSpliterator<E> implements Spliterator<E> {
+        /**
+         * Lists smaller than this are not split, walking them is cheaper than the parallel processing
+         */
+        private final static int MIN_SPLIT_SIZE = 1 << 10;
+        private Node<E> current;
+        private int remaining;
+
+        private NodeSpliterator(Node<E> current, int remaining) {
+            this.current = current;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (remaining == 0) {
+                return false;
+            }
+            action.accept(current.getData());
+            current = current.getNextNode();
+            remaining--;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            for (; remaining > 0; remaining--) {
+                action.accept(current.getData());
+                current = current.getNextNode();
+            }
+        }
+
+        /**
+         * Gives away the first half and continues from the middle
+         */
+        @Override
+        public Spliterator<E> trySplit() {
+            if (remaining < MIN_SPLIT_SIZE) {
+                return null;
+            }
+            int half = remaining / 2;
+            Spliterator<E> prefix = new NodeSpliterator<>(current, half);
+            for (int i = 0; i < half; i++) {
+                current = current.getNextNode();
             }
+            remaining -= half;
+            return prefix;
         }
 
-        return "MyLinkedList{" +
-                sb +
-                '}';
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
     }
 }
@@ -0,0 +1,265 @@
+package com.solovev.model;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Common api of the lists in this package;
+ * Implementations must provide positional and queue operations, all other operations are built on top of them
+ *
+ * @param <E> type of the elements
+ */
+public interface MyList<E> extends Iterable<E> {
+    int INT_IF_NOT_FOUND = -1;
+
+    /**
+     * Adds data to the end of the list
+     *
+     * @param elem to add
+     */
+    void add(E elem);
+
+    /**
+     * Adds element on the place of the index
+     *
+     * @param index to place element
+     * @param elem  element to put
+     * @throws IndexOutOfBoundsException if index is < 0 or more than size of the collection
+     */
+    void add(int index, E elem);
+
+    /**
+     * Adds element as first element in list
+     *
+     * @param elem element to add
+     */
+    void addFirst(E elem);
+
+    /**
+     * Adds element as last element in collection
+     *
+     * @param elem element to add
+     */
+    default void addLast(E elem) {
+        this.add(elem);
+    }
+
+    /**
+     * Adds all to the collection, in the end of the collection
+     *
+     * @param elements elements to add
+     */
+    default void addAll(Iterable<E> elements) {
+        elements.forEach(this::add);
+    }
+
+    /**
+     * Adds all to the collection, beggining with specified index
+     *
+     * @param index    to start
+     * @param elements elements to add
+     * @throws IndexOutOfBoundsException if index is < 0 or more than size of the collection
+     */
+    default void addAll(int index, Iterable<E> elements) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        int counter = index;
+        for (E element : elements) {
+            this.add(counter++, element);
+        }
+    }
+
+    /**
+     * Removes element with given index
+     *
+     * @param index to remove element
+     * @return removed element
+     * @throws IndexOutOfBoundsException if index is < 0 or >= size of the collection
+     */
+    E remove(int index);
+
+    /**
+     * Removes first occurrence of the element from the collection
+     *
+     * @param elem to remove
+     * @return true if element was successfully removed, false if it is not presented in the collection
+     */
+    default boolean removeObj(E elem) {
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()) {
+            if (Objects.equals(iterator.next(), elem)) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * removes from this collection all elements found in the given collection
+     *
+     * @param elements to remove
+     */
+    default void removeAll(Iterable<E> elements) {
+        elements.forEach(this::removeObj);
+    }
+
+    /**
+     * Removes all elements matching the filter
+     *
+     * @param filter to test elements
+     * @return true if any element was removed
+     */
+    default boolean removeIf(Predicate<? super E> filter) {
+        boolean removed = false;
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()) {
+            if (filter.test(iterator.next())) {
+                iterator.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * return and deletes the first element in the list
+     *
+     * @return first element in the queue or null if collection is empty
+     */
+    E poll();
+
+    /**
+     * return and deletes the last element in the list
+     *
+     * @return last element in the queue or null if collection is empty
+     */
+    E pollLast();
+
+    /**
+     * Gets element on the given index
+     *
+     * @param index of the element to get
+     * @return element on the given index
+     * @throws IndexOutOfBoundsException if index is < 0 or more than size of the collection
+     */
+    E get(int index);
+
+    /**
+     * Gets the first element in queue without deleting it, null if queue is empty
+     *
+     * @return first element in queue without deleting it, null if queue is empty
+     */
+    default E peek() {
+        return size() > 0 ? this.get(0) : null;
+    }
+
+    /**
+     * Gets the last element in queue without deleting it, null if queue is empty
+     *
+     * @return last element in queue without deleting it, null if queue is empty
+     */
+    default E peekLast() {
+        return size() > 0 ? this.get(size() - 1) : null; //-1 since index starts from 0
+    }
+
+    /**
+     * Searches for the given element in the collection
+     *
+     * @param elem element to find
+     * @return index of the element, or -1 if element wasn't found
+     */
+    default int indexOf(E elem) {
+        Iterator<E> iterator = iterator();
+        for (int i = 0; iterator.hasNext(); i++) {
+            if (Objects.equals(iterator.next(), elem)) {
+                return i;
+            }
+        }
+        return INT_IF_NOT_FOUND; // if reached, means elem not found
+    }
+
+    /**
+     * Searches for given element in the collection
+     *
+     * @param elem to search for
+     * @return true if element is presented false otherwise
+     */
+    default boolean contains(E elem) {
+        return this.indexOf(elem) != INT_IF_NOT_FOUND;
+    }
+
+    /**
+     * Searches for all elements from given collection in this collection
+     *
+     * @param elems collection to search
+     * @return true if all elements in param collection are presented in the underlying collection
+     */
+    default boolean containsAll(Iterable<E> elems) {
+        for (E elem : elems) {
+            if (!this.contains(elem)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Keeps in the collection only elements which were found in the other collection. The collection will be empty if nothing has matched
+     *
+     * @param elements to keep all matching elements from
+     */
+    default void retainAll(Iterable<E> elements) {
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()) {
+            E elem = iterator.next();
+            boolean found = false;
+            for (E e : elements) {
+                if (Objects.equals(e, elem)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Method to see size of the collection
+     *
+     * @return size of the collection
+     */
+    int size();
+
+    /**
+     * Spliterator which knows the size of the list
+     *
+     * @return ordered and sized spliterator
+     */
+    @Override
+    default Spliterator<E> spliterator() {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+    }
+
+    /**
+     * @return sequential stream of the list elements
+     */
+    default Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @return parallel stream of the list elements
+     */
+    default Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+}
@@ -0,0 +1,356 @@
+package com.solovev.model;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Linked list which keeps elements and links outside the java heap;
+ * Every record is prev link, next link and the element encoded by the codec;
+ * Records are stored in direct buffer segments, new segment is allocated when all records are used;
+ * Links are record numbers, so the list has no objects per element at all
+ * <p>
+ * List must be closed after usage, closed list cannot be used anymore
+ *
+ * @param <E> type of the elements
+ */
+public class MyOffHeapLinkedList<E> implements MyList<E>, AutoCloseable {
+    private final static int NIL = -1;
+    private final static int DEFAULT_RECORDS_PER_SEGMENT = 4096;
+    private final static int PREV_OFFSET = 0;
+    private final static int NEXT_OFFSET = Integer.BYTES;
+    private final static int DATA_OFFSET = 2 * Integer.BYTES;
+    /**
+     * Frees memory of the direct buffer at once, null if the runtime does not allow it
+     */
+    private final static MethodHandle CLEANER = cleaner();
+    private final ElementCodec<E> codec;
+    private final int recordSize;
+    private final int recordsPerSegment;
+    private List<ByteBuffer> segments = new ArrayList<>();
+    private int firstRecord = NIL;
+    private int lastRecord = NIL;
+    /**
+     * First of the released records, released records are linked through next link
+     */
+    private int freeRecord = NIL;
+    /**
+     * Number of records which were ever used
+     */
+    private int usedRecords;
+    private int size;
+
+    public MyOffHeapLinkedList(ElementCodec<E> codec) {
+        this(codec, DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    /**
+     * @param codec             to encode elements
+     * @param recordsPerSegment number of elements in every allocated segment
+     * @throws IllegalArgumentException if records number is not positive or segment does not fit into buffer
+     */
+    public MyOffHeapLinkedList(ElementCodec<E> codec, int recordsPerSegment) {
+        this.codec = codec;
+        this.recordSize = DATA_OFFSET + codec.size();
+        if (recordsPerSegment <= 0 || (long) recordsPerSegment * recordSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Illegal records per segment: " + recordsPerSegment);
+        }
+        this.recordsPerSegment = recordsPerSegment;
+    }
+
+    @Override
+    public void add(E elem) {
+        linkBefore(elem, NIL);
+    }
+
+    @Override
+    public void add(int index, E elem) {
+        if (index == size) {
+            this.addLast(elem);
+        } else {
+            linkBefore(elem, getRecord(index)); //index is checked in getRecord
+        }
+    }
+
+    @Override
+    public void addFirst(E elem) {
+        linkBefore(elem, firstRecord);
+    }
+
+    @Override
+    public E remove(int index) {
+        return unlink(getRecord(index));
+    }
+
+    @Override
+    public E poll() {
+        return size == 0 ? null : unlink(firstRecord);
+    }
+
+    @Override
+    public E pollLast() {
+        return size == 0 ? null : unlink(lastRecord);
+    }
+
+    @Override
+    public E get(int index) {
+        return read(getRecord(index));
+    }
+
+    @Override
+    public E peek() {
+        return size == 0 ? null : read(firstRecord);
+    }
+
+    @Override
+    public E peekLast() {
+        return size == 0 ? null : read(lastRecord);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return number of bytes allocated outside the heap
+     */
+    public long allocatedBytes() {
+        return (long) segments().size() * recordsPerSegment * recordSize;
+    }
+
+    /**
+     * Method to iterate throw collection; iterator supports removal
+     */
+    @Override
+    public Iterator<E> iterator() {
+        segments(); //fails fast if the list is closed
+        return new Iterator<>() {
+            int nextRecord = firstRecord;
+            int lastReturned = NIL;
+
+            @Override
+            public boolean hasNext() {
+                return nextRecord != NIL;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = nextRecord;
+                nextRecord = getLink(nextRecord, NEXT_OFFSET);
+                return read(lastReturned);
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned == NIL) {
+                    throw new IllegalStateException();
+                }
+                unlink(lastReturned);
+                lastReturned = NIL;
+            }
+        };
+    }
+
+    /**
+     * Frees memory of all segments; list cannot be used after closing, closing twice does nothing;
+     * If the runtime does not allow to free direct buffers explicitly, memory is returned when buffers are collected
+     */
+    @Override
+    public void close() {
+        if (segments == null) {
+            return;
+        }
+        List<ByteBuffer> released = segments;
+        segments = null; //no access to the freed memory from now on
+        for (ByteBuffer segment : released) {
+            free(segment);
+        }
+        firstRecord = lastRecord = freeRecord = NIL;
+        usedRecords = size = 0;
+    }
+
+    /**
+     * Finds record of the element on the given index, walking from the closest end
+     *
+     * @param index of the element
+     * @return record number
+     * @throws IndexOutOfBoundsException if index is < 0 or >= size of the collection
+     */
+    private int getRecord(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+        int record;
+        if (index < size / 2) {
+            record = firstRecord;
+            for (int i = 0; i < index; i++) {
+                record = getLink(record, NEXT_OFFSET);
+            }
+        } else {
+            record = lastRecord;
+            for (int i = size - 1; i > index; i--) {
+                record = getLink(record, PREV_OFFSET);
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Writes element to the free record and links it before successor;
+     * Record is taken only after the element was written, so the failed codec does not lose the record
+     *
+     * @param elem      to add
+     * @param successor record to link before, or NIL to link as the last element
+     */
+    private void linkBefore(E elem, int successor) {
+        List<ByteBuffer> segments = segments();
+        int record;
+        if (freeRecord != NIL) {
+            record = freeRecord;
+        } else {
+            if (usedRecords == segments.size() * recordsPerSegment) {
+                segments.add(ByteBuffer.allocateDirect(recordsPerSegment * recordSize).order(ByteOrder.nativeOrder()));
+            }
+            record = usedRecords;
+        }
+        codec.write(segment(record), offset(record) + DATA_OFFSET, elem);
+        if (record == freeRecord) {
+            freeRecord = getLink(record, NEXT_OFFSET);
+        } else {
+            usedRecords++;
+        }
+        int predecessor = successor == NIL ? lastRecord : getLink(successor, PREV_OFFSET);
+        setLink(record, PREV_OFFSET, predecessor);
+        setLink(record, NEXT_OFFSET, successor);
+        if (predecessor == NIL) {
+            firstRecord = record;
+        } else {
+            setLink(predecessor, NEXT_OFFSET, record);
+        }
+        if (successor == NIL) {
+            lastRecord = record;
+        } else {
+            setLink(successor, PREV_OFFSET, record);
+        }
+        size++;
+    }
+
+    /**
+     * Unlinks the record and releases it for the next insertions
+     *
+     * @param record to unlink
+     * @return element in the record
+     */
+    private E unlink(int record) {
+        E elem = read(record);
+        int prev = getLink(record, PREV_OFFSET);
+        int next = getLink(record, NEXT_OFFSET);
+        if (prev == NIL) {
+            firstRecord = next;
+        } else {
+            setLink(prev, NEXT_OFFSET, next);
+        }
+        if (next == NIL) {
+            lastRecord = prev;
+        } else {
+            setLink(next, PREV_OFFSET, prev);
+        }
+        setLink(record, NEXT_OFFSET, freeRecord);
+        freeRecord = record;
+        size--;
+        return elem;
+    }
+
+    private E read(int record) {
+        return codec.read(segment(record), offset(record) + DATA_OFFSET);
+    }
+
+    private int getLink(int record, int linkOffset) {
+        return segment(record).getInt(offset(record) + linkOffset);
+    }
+
+    private void setLink(int record, int linkOffset, int link) {
+        segment(record).putInt(offset(record) + linkOffset, link);
+    }
+
+    private ByteBuffer segment(int record) {
+        return segments().get(record / recordsPerSegment);
+    }
+
+    private int offset(int record) {
+        return (record % recordsPerSegment) * recordSize;
+    }
+
+    /**
+     * @return allocated segments
+     * @throws IllegalStateException if the list is closed
+     */
+    private List<ByteBuffer> segments() {
+        if (segments == null) {
+            throw new IllegalStateException("List is closed");
+        }
+        return segments;
+    }
+
+    /**
+     * Frees memory of the direct buffer, buffer must not be used after that
+     */
+    private static void free(ByteBuffer buffer) {
+        if (CLEANER == null) {
+            return;
+        }
+        try {
+            CLEANER.invokeExact(buffer);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot free the segment", e);
+        }
+    }
+
+    /**
+     * Finds Unsafe.invokeCleaner, the only way to free direct buffer before it is collected;
+     * Unsafe is taken by reflection, as it is not a part of the public api
+     *
+     * @return handle taking the buffer or null if Unsafe is not available
+     */
+    private static MethodHandle cleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        Iterator<E> iterator = this.iterator();
+        String delimiter = ", ";
+
+        while (iterator.hasNext()) {
+            sb.append(iterator.next());
+            if (iterator.hasNext()) {
+                sb.append(delimiter);
+            }
+        }
+
+        return "MyOffHeapLinkedList{" +
+                sb +
+                '}';
+    }
+}
@@ -0,0 +1,373 @@
+package com.solovev.model;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Immutable list with logarithmic positional operations;
+ * Every change returns the new version of the list, which shares all unchanged nodes with the old one:
+ * elements are kept in the treap ordered by position as in MyIndexedList, and only the nodes on the path
+ * to the changed place are copied, so a change takes O(log n) expected time and memory and taking a snapshot is free;
+ * Old versions stay valid and can be read by any number of threads without locking;
+ * Builder changes the nodes it has created in place, so batches of changes do not copy the same paths again
+ *
+ * @param <E> type of the elements
+ */
+public final class MyPersistentList<E> implements Iterable<E> {
+    private static final MyPersistentList<?> EMPTY = new MyPersistentList<>(null);
+
+    private final TreapNode<E> root;
+
+    private MyPersistentList(TreapNode<E> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> MyPersistentList<E> empty() {
+        return (MyPersistentList<E>) EMPTY;
+    }
+
+    @SafeVarargs
+    public static <E> MyPersistentList<E> of(E... elements) {
+        return from(Arrays.asList(elements));
+    }
+
+    /**
+     * Creates list of the elements in linear time
+     *
+     * @param elements to put to the list in their order
+     * @return new list
+     */
+    public static <E> MyPersistentList<E> from(Iterable<E> elements) {
+        return new Builder<E>().addAll(elements).build();
+    }
+
+    /**
+     * @return builder of the new list
+     */
+    public static <E> Builder<E> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Creates builder which starts from this list; this list is not changed by the builder
+     *
+     * @return builder with the elements of this list
+     */
+    public Builder<E> toBuilder() {
+        return new Builder<>(root);
+    }
+
+    /**
+     * Adds data to the end of the list
+     *
+     * @param elem to add
+     * @return new version of the list
+     */
+    public MyPersistentList<E> add(E elem) {
+        return add(size(), elem);
+    }
+
+    /**
+     * Adds element on the place of the index
+     *
+     * @param index to place element
+     * @param elem  element to put
+     * @return new version of the list
+     * @throws IndexOutOfBoundsException if index is < 0 or more than size of the collection
+     */
+    public MyPersistentList<E> add(int index, E elem) {
+        checkPosition(index, size());
+        return new MyPersistentList<>(TreapNode.insert(root, index, new TreapNode<>(elem, null), null));
+    }
+
+    /**
+     * Adds element as first element in list
+     *
+     * @param elem element to add
+     * @return new version of the list
+     */
+    public MyPersistentList<E> addFirst(E elem) {
+        return add(0, elem);
+    }
+
+    /**
+     * Adds all to the end of the list; elements are built into the separate tree in linear time
+     * and then joined with this one
+     *
+     * @param elements elements to add
+     * @return new version of the list
+     */
+    public MyPersistentList<E> addAll(Iterable<E> elements) {
+        return new MyPersistentList<>(TreapNode.merge(root, TreapNode.build(elements, null), null));
+    }
+
+    /**
+     * Removes element with given index
+     *
+     * @param index to remove element
+     * @return new version of the list
+     * @throws IndexOutOfBoundsException if index is < 0 or >= size of the collection
+     */
+    public MyPersistentList<E> remove(int index) {
+        checkIndex(index, size());
+        return new MyPersistentList<>(TreapNode.delete(root, index, null));
+    }
+
+    /**
+     * Removes first occurrence of the element
+     *
+     * @param elem to remove
+     * @return new version of the list or this list if element is not presented in it
+     */
+    public MyPersistentList<E> removeObj(E elem) {
+        int index = indexOf(elem);
+        return index == MyList.INT_IF_NOT_FOUND ? this : remove(index);
+    }
+
+    /**
+     * Removes the first element, the element itself is given by peek
+     *
+     * @return new version of the list or this list if it is empty
+     */
+    public MyPersistentList<E> poll() {
+        return isEmpty() ? this : remove(0);
+    }
+
+    /**
+     * Removes the last element, the element itself is given by peekLast
+     *
+     * @return new version of the list or this list if it is empty
+     */
+    public MyPersistentList<E> pollLast() {
+        return isEmpty() ? this : remove(size() - 1);
+    }
+
+    /**
+     * Replaces element on the index
+     *
+     * @param index of the element to replace
+     * @param elem  new element
+     * @return new version of the list
+     * @throws IndexOutOfBoundsException if index is < 0 or >= size of the collection
+     */
+    public MyPersistentList<E> set(int index, E elem) {
+        checkIndex(index, size());
+        return new MyPersistentList<>(TreapNode.replace(root, index, elem, null));
+    }
+
+    /**
+     * Gets element on the given index
+     *
+     * @param index of the element to get
+     * @return element on the given index
+     * @throws IndexOutOfBoundsException if index is < 0 or >= size of the collection
+     */
+    public E get(int index) {
+        checkIndex(index, size());
+        return TreapNode.find(root, index);
+    }
+
+    /**
+     * @return first element or null if list is empty
+     */
+    public E peek() {
+        return isEmpty() ? null : get(0);
+    }
+
+    /**
+     * @return last element or null if list is empty
+     */
+    public E peekLast() {
+        return isEmpty() ? null : get(size() - 1);
+    }
+
+    /**
+     * Searches for the given element in the collection
+     *
+     * @param elem element to find
+     * @return index of the element, or -1 if element wasn't found
+     */
+    public int indexOf(E elem) {
+        Iterator<E> iterator = iterator();
+        for (int i = 0; iterator.hasNext(); i++) {
+            if (Objects.equals(iterator.next(), elem)) {
+                return i;
+            }
+        }
+        return MyList.INT_IF_NOT_FOUND;
+    }
+
+    public boolean contains(E elem) {
+        return indexOf(elem) != MyList.INT_IF_NOT_FOUND;
+    }
+
+    public int size() {
+        return TreapNode.size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Iterates the list in its order; list cannot be changed, so iterator does not support removal
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            /**
+             * Node to return next on the top, below are ancestors whose elements go after it
+             */
+            final Deque<TreapNode<E>> path = new ArrayDeque<>();
+
+            {
+                pushLeftSpine(root);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                TreapNode<E> node = path.pop();
+                pushLeftSpine(node.right);
+                return node.data;
+            }
+
+            private void pushLeftSpine(TreapNode<E> node) {
+                for (; node != null; node = node.left) {
+                    path.push(node);
+                }
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        Iterator<E> iterator = this.iterator();
+        String delimiter = ", ";
+
+        while (iterator.hasNext()) {
+            sb.append(iterator.next());
+            if (iterator.hasNext()) {
+                sb.append(delimiter);
+            }
+        }
+
+        return "MyPersistentList{" +
+                sb +
+                '}';
+    }
+
+    /**
+     * Transient version of the list for the batch changes;
+     * nodes created by the builder are changed in place until the list is built, nodes shared with lists are copied;
+     * Builder is not thread safe, the lists it builds are
+     *
+     * @param <E> type of the elements
+     */
+    public static final class Builder<E> {
+        private TreapNode<E> root;
+        /**
+         * Marks the nodes this builder can change in place, replaced when the list is built
+         */
+        private Object owner = new Object();
+
+        private Builder() {
+        }
+
+        private Builder(TreapNode<E> root) {
+            this.root = root;
+        }
+
+        public Builder<E> add(E elem) {
+            return add(size(), elem);
+        }
+
+        /**
+         * @throws IndexOutOfBoundsException if index is < 0 or more than size of the collection
+         */
+        public Builder<E> add(int index, E elem) {
+            checkPosition(index, size());
+            root = TreapNode.insert(root, index, new TreapNode<>(elem, owner), owner);
+            return this;
+        }
+
+        public Builder<E> addFirst(E elem) {
+            return add(0, elem);
+        }
+
+        /**
+         * Adds elements to the end in linear time
+         */
+        public Builder<E> addAll(Iterable<E> elements) {
+            root = TreapNode.merge(root, TreapNode.build(elements, owner), owner);
+            return this;
+        }
+
+        /**
+         * @return removed element
+         * @throws IndexOutOfBoundsException if index is < 0 or >= size of the collection
+         */
+        public E remove(int index) {
+            E removed = get(index); //index is checked in get
+            root = TreapNode.delete(root, index, owner);
+            return removed;
+        }
+
+        /**
+         * @throws IndexOutOfBoundsException if index is < 0 or >= size of the collection
+         */
+        public Builder<E> set(int index, E elem) {
+            checkIndex(index, size());
+            root = TreapNode.replace(root, index, elem, owner);
+            return this;
+        }
+
+        /**
+         * @throws IndexOutOfBoundsException if index is < 0 or >= size of the collection
+         */
+        public E get(int index) {
+            checkIndex(index, size());
+            return TreapNode.find(root, index);
+        }
+
+        public int size() {
+            return TreapNode.size(root);
+        }
+
+        /**
+         * Creates list of the current elements in constant time; builder can be used further,
+         * its next changes copy the nodes shared with the built list
+         *
+         * @return new list
+         */
+        public MyPersistentList<E> build() {
+            owner = new Object();
+            return root == null ? empty() : new MyPersistentList<>(root);
+        }
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private static void checkPosition(int index, int size) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package com.solovev.model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Unrolled linked list: every node (chunk) keeps a small array of elements instead of one element;
+ * Chunks are split when they overflow and merged with the next chunk when they become sparse,
+ * so memory per element and pointer chasing are reduced by the factor of chunk capacity
+ *
+ * @param <E> type of the elements
+ */
+public class MyUnrolledLinkedList<E> implements MyList<E> {
+    private final static int DEFAULT_CHUNK_CAPACITY = 64;
+    private final static int MIN_CHUNK_CAPACITY = 4;
+    private final int chunkCapacity;
+    private Chunk<E> firstChunk;
+    private Chunk<E> lastChunk;
+    private int size;
+
+    public MyUnrolledLinkedList() {
+        this(DEFAULT_CHUNK_CAPACITY);
+    }
+
+    /**
+     * @param chunkCapacity number of elements stored in one chunk
+     * @throws IllegalArgumentException if capacity is less than 4
+     */
+    public MyUnrolledLinkedList(int chunkCapacity) {
+        if (chunkCapacity < MIN_CHUNK_CAPACITY) {
+            throw new IllegalArgumentException("Chunk capacity must be at least " + MIN_CHUNK_CAPACITY + " but was " + chunkCapacity);
+        }
+        this.chunkCapacity = chunkCapacity;
+    }
+
+    /**
+     * Adds data to list
+     *
+     * @param elem to add
+     */
+    @Override
+    public void add(E elem) {
+        if (lastChunk == null || lastChunk.end == chunkCapacity) {
+            linkAfter(lastChunk, new Chunk<>(chunkCapacity, 0));
+        }
+        lastChunk.items[lastChunk.end++] = elem;
+        size++;
+    }
+
+    /**
+     * Adds element on the place of the index
+     *
+     * @param index to place element
+     * @param elem  element to put
+     * @throws IndexOutOfBoundsException if index is < 0 or more than size of the collection
+     */
+    @Override
+    public void add(int index, E elem) {
+        if (index == size) {
+            this.addLast(elem);
+        } else if (index == 0) {
+            this.addFirst(elem);
+        } else {
+            checkIndex(index);
+            Chunk<E> chunk = firstChunk;
+            int offset = index;
+            if (index < size / 2) {
+                while (offset >= chunk.count()) {
+                    offset -= chunk.count();
+                    chunk = chunk.next;
+                }
+            } else {
+                chunk = lastChunk;
+                offset = index - (size - chunk.count());
+                while (offset < 0) {
+                    chunk = chunk.prev;
+                    offset += chunk.count();
+                }
+            }
+            insert(chunk, offset, elem);
+        }
+    }
+
+    /**
+     * Adds element as first element in list
+     *
+     * @param elem element to add
+     */
+    @Override
+    public void addFirst(E elem) {
+        if (firstChunk == null || firstChunk.start == 0) {
+            //new chunk is filled from its end, so next addFirst calls do not shift elements
+            linkBefore(firstChunk, new Chunk<>(chunkCapacity, chunkCapacity));
+        }
+        firstChunk.items[--firstChunk.start] = elem;
+        size++;
+    }
+
+    /**
+     * Removes element with given index
+     *
+     * @param index to remove element
+     * @return removed element
+     */
+    @Override
+    public E remove(int index) {
+        checkIndex(index);
+        Chunk<E> chunk;
+        int offset;
+        if (index < size / 2) {
+            chunk = firstChunk;
+            offset = index;
+            while (offset >= chunk.count()) {
+                offset -= chunk.count();
+                chunk = chunk.next;
+            }
+        } else {
+            chunk = lastChunk;
+            offset = index - (size - chunk.count());
+            while (offset < 0) {
+                chunk = chunk.prev;
+                offset += chunk.count();
+            }
+        }
+        return removeFrom(chunk, offset);
+    }
+
+    /**
+     * return and deletes the first element in the list
+     *
+     * @return first element in the queue or null if collection is empty
+     */
+    @Override
+    public E poll() {
+        return size == 0 ? null : removeFrom(firstChunk, 0);
+    }
+
+    /**
+     * return and deletes the last element in the list
+     *
+     * @return last element in the queue or null if collection is empty
+     */
+    @Override
+    public E pollLast() {
+        return size == 0 ? null : removeFrom(lastChunk, lastChunk.count() - 1);
+    }
+
+    /**
+     * Gets element on the given index
+     *
+     * @param index of the element to get
+     * @return element on the given index
+     * @throws IndexOutOfBoundsException if index is < 0 or more than size of the collection
+     */
+    @Override
+    public E get(int index) {
+        checkIndex(index);
+        if (index < size / 2) {
+            Chunk<E> chunk = firstChunk;
+            while (index >= chunk.count()) {
+                index -= chunk.count();
+                chunk = chunk.next;
+            }
+            return chunk.get(index);
+        }
+        Chunk<E> chunk = lastChunk;
+        int offset = index - (size - chunk.count());
+        while (offset < 0) {
+            chunk = chunk.prev;
+            offset += chunk.count();
+        }
+        return chunk.get(offset);
+    }
+
+    @Override
+    public E peek() {
+        return size > 0 ? firstChunk.get(0) : null;
+    }
+
+    @Override
+    public E peekLast() {
+        return size > 0 ? lastChunk.get(lastChunk.count() - 1) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Method to iterate throw collection; iterator supports removal
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            Chunk<E> chunk = firstChunk;
+            int offset;
+            Chunk<E> lastReturnedChunk;
+            int lastReturnedOffset;
+
+            @Override
+            public boolean hasNext() {
+                while (chunk != null && offset >= chunk.count()) {
+                    chunk = chunk.next;
+                    offset = 0;
+                }
+                return chunk != null;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                lastReturnedChunk = chunk;
+                lastReturnedOffset = offset;
+                return chunk.get(offset++);
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturnedChunk == null) {
+                    throw new IllegalStateException();
+                }
+                Chunk<E> nextChunk = lastReturnedChunk.next;
+                removeFrom(lastReturnedChunk, lastReturnedOffset);
+                //elements after removed one shifted by one; if chunk was emptied it is already unlinked
+                if (lastReturnedChunk.count() == 0) {
+                    chunk = nextChunk;
+                    offset = 0;
+                } else {
+                    chunk = lastReturnedChunk;
+                    offset = lastReturnedOffset;
+                }
+                lastReturnedChunk = null;
+            }
+        };
+    }
+
+    /**
+     * Inserts element into the chunk, splitting it in two if it is full
+     *
+     * @param chunk  to insert to
+     * @param offset position inside the chunk
+     * @param elem   element to insert
+     */
+    private void insert(Chunk<E> chunk, int offset, E elem) {
+        if (chunk.count() == chunkCapacity) {
+            Chunk<E> upperHalf = split(chunk);
+            if (offset > chunk.count()) {
+                offset -= chunk.count();
+                chunk = upperHalf;
+            }
+        }
+        int position = chunk.start + offset;
+        if (chunk.end < chunkCapacity) {
+            System.arraycopy(chunk.items, position, chunk.items, position + 1, chunk.end - position);
+            chunk.end++;
+        } else {
+            System.arraycopy(chunk.items, chunk.start, chunk.items, chunk.start - 1, offset);
+            chunk.start--;
+            position--;
+        }
+        chunk.items[position] = elem;
+        size++;
+    }
+
+    /**
+     * Moves upper half of the full chunk to the newly created chunk linked after it
+     *
+     * @param chunk full chunk to split
+     * @return new chunk with the upper half of elements
+     */
+    private Chunk<E> split(Chunk<E> chunk) {
+        int half = chunk.count() / 2;
+        Chunk<E> upperHalf = new Chunk<>(chunkCapacity, 0);
+        int from = chunk.start + half;
+        int moved = chunk.end - from;
+        System.arraycopy(chunk.items, from, upperHalf.items, 0, moved);
+        Arrays.fill(chunk.items, from, chunk.end, null);
+        upperHalf.end = moved;
+        chunk.end = from;
+        linkAfter(chunk, upperHalf);
+        return upperHalf;
+    }
+
+    /**
+     * Removes element from the chunk; unlinks chunk if it is empty, or merges next chunk into it if it became sparse
+     *
+     * @param chunk  to remove from
+     * @param offset position inside the chunk
+     * @return removed element
+     */
+    private E removeFrom(Chunk<E> chunk, int offset) {
+        int position = chunk.start + offset;
+        E removed = chunk.get(offset);
+        //shifts the shorter part of the chunk
+        if (offset < chunk.count() / 2) {
+            System.arraycopy(chunk.items, chunk.start, chunk.items, chunk.start + 1, offset);
+            chunk.items[chunk.start++] = null;
+        } else {
+            System.arraycopy(chunk.items, position + 1, chunk.items, position, chunk.end - position - 1);
+            chunk.items[--chunk.end] = null;
+        }
+        size--;
+
+        if (chunk.count() == 0) {
+            unlink(chunk);
+        } else if (chunk.count() < chunkCapacity / 4
+                && chunk.next != null
+                && chunk.count() + chunk.next.count() <= chunkCapacity) {
+            mergeNext(chunk);
+        }
+        return removed;
+    }
+
+    /**
+     * Appends all elements of the next chunk to this one and unlinks the next chunk
+     *
+     * @param chunk to merge next chunk into
+     */
+    private void mergeNext(Chunk<E> chunk) {
+        Chunk<E> next = chunk.next;
+        if (chunk.start > 0 || chunk.end + next.count() > chunkCapacity) {
+            int count = chunk.count();
+            System.arraycopy(chunk.items, chunk.start, chunk.items, 0, count);
+            Arrays.fill(chunk.items, count, chunk.end, null);
+            chunk.start = 0;
+            chunk.end = count;
+        }
+        System.arraycopy(next.items, next.start, chunk.items, chunk.end, next.count());
+        chunk.end += next.count();
+        unlink(next);
+    }
+
+    private void linkAfter(Chunk<E> chunk, Chunk<E> toLink) {
+        toLink.prev = chunk;
+        if (chunk == null) {
+            toLink.next = firstChunk;
+            firstChunk = toLink;
+        } else {
+            toLink.next = chunk.next;
+            chunk.next = toLink;
+        }
+        if (toLink.next == null) {
+            lastChunk = toLink;
+        } else {
+            toLink.next.prev = toLink;
+        }
+    }
+
+    private void linkBefore(Chunk<E> chunk, Chunk<E> toLink) {
+        if (chunk == null) {
+            linkAfter(lastChunk, toLink);
+        } else {
+            linkAfter(chunk.prev, toLink);
+        }
+    }
+
+    private void unlink(Chunk<E> chunk) {
+        if (chunk.prev == null) {
+            firstChunk = chunk.next;
+        } else {
+            chunk.prev.next = chunk.next;
+        }
+        if (chunk.next == null) {
+            lastChunk = chunk.prev;
+        } else {
+            chunk.next.prev = chunk.prev;
+        }
+    }
+
+    /**
+     * Checks index and throws if the index is < 0 or >= size of the collection
+     *
+     * @param index to check
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        Iterator<E> iterator = this.iterator();
+        String delimiter = ", ";
+
+        while (iterator.hasNext()) {
+            sb.append(iterator.next());
+            if (iterator.hasNext()) {
+                sb.append(delimiter);
+            }
+        }
+
+        return "MyUnrolledLinkedList{" +
+                sb +
+                '}';
+    }
+
+    /**
+     * Node of the unrolled list; elements occupy items from start inclusive to end exclusive
+     */
+    private static class Chunk<E> {
+        private final Object[] items;
+        private int start;
+        private int end;
+        private Chunk<E> prev;
+        private Chunk<E> next;
+
+        private Chunk(int capacity, int position) {
+            this.items = new Object[capacity];
+            this.start = position;
+            this.end = position;
+        }
+
+        private int count() {
+            return end - start;
+        }
+
+        @SuppressWarnings("unchecked")
+        private E get(int offset) {
+            return (E) items[start + offset];
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.solovev.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Persistent map from the name to the number of nodes with it, used by ConcurrentTree to find names in constant time;
+ * Hash array mapped trie: every branch takes 5 bits of the hash, keeps the bitmap of its used slots
+ * and the array of only the used ones, names with the same hash share one leaf;
+ * Change copies only the path from the root to the leaf, so the previous map stays unchanged
+ * and can be read by any number of threads while the writer makes the next one
+ */
+final class NameCounts {
+    static final NameCounts EMPTY = new NameCounts(null);
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * Branch, leaf or null for the empty map
+     */
+    private final Object root;
+
+    private NameCounts(Object root) {
+        this.root = root;
+    }
+
+    /**
+     * @return number of nodes with the name, 0 if there are none
+     */
+    int count(String name) {
+        int hash = hash(name);
+        Object node = root;
+        for (int shift = 0; node instanceof Branch branch; shift += BITS) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((branch.bitmap & bit) == 0) {
+                return 0;
+            }
+            node = branch.slots[Integer.bitCount(branch.bitmap & (bit - 1))];
+        }
+        return node == null ? 0 : ((Leaf) node).count(hash, name);
+    }
+
+    /**
+     * @param delta change of the number of nodes with the name, name is removed when its number becomes 0
+     * @return map with the changed number, this map if nothing changed
+     */
+    NameCounts add(String name, int delta) {
+        Object changed = add(root, hash(name), 0, name, delta);
+        return changed == root ? this : new NameCounts(changed);
+    }
+
+    /**
+     * @return new node of the subtrie, the same node if nothing changed or null if the subtrie became empty
+     */
+    private static Object add(Object node, int hash, int shift, String name, int delta) {
+        if (node == null) {
+            return delta > 0 ? new Leaf(hash, new String[]{name}, new int[]{delta}) : null;
+        }
+        if (node instanceof Leaf leaf) {
+            if (leaf.hash == hash) {
+                return leaf.add(name, delta);
+            }
+            if (delta <= 0) {
+                return leaf;
+            }
+            //two hashes differ in some 5 bits, so the branches end
+            Object added = new Leaf(hash, new String[]{name}, new int[]{delta});
+            return branchOf(leaf, leaf.hash, added, hash, shift);
+        }
+        Branch branch = (Branch) node;
+        int bit = 1 << ((hash >>> shift) & MASK);
+        int index = Integer.bitCount(branch.bitmap & (bit - 1));
+        boolean used = (branch.bitmap & bit) != 0;
+        Object child = used ? branch.slots[index] : null;
+        Object changed = add(child, hash, shift + BITS, name, delta);
+        if (changed == child) {
+            return branch;
+        }
+        if (changed == null) {
+            if (branch.slots.length == 1) {
+                return null;
+            }
+            Object[] slots = new Object[branch.slots.length - 1];
+            System.arraycopy(branch.slots, 0, slots, 0, index);
+            System.arraycopy(branch.slots, index + 1, slots, index, slots.length - index);
+            //branch with the single leaf is replaced by the leaf, as leaves compare the whole hash
+            return slots.length == 1 && slots[0] instanceof Leaf ? slots[0] : new Branch(branch.bitmap & ~bit, slots);
+        }
+        if (used) {
+            Object[] slots = branch.slots.clone();
+            slots[index] = changed;
+            return new Branch(branch.bitmap, slots);
+        }
+        Object[] slots = new Object[branch.slots.length + 1];
+        System.arraycopy(branch.slots, 0, slots, 0, index);
+        slots[index] = changed;
+        System.arraycopy(branch.slots, index, slots, index + 1, branch.slots.length - index);
+        return new Branch(branch.bitmap | bit, slots);
+    }
+
+    /**
+     * @return branches down to the level where the hashes of the nodes differ
+     */
+    private static Object branchOf(Object first, int firstHash, Object second, int secondHash, int shift) {
+        int firstSlot = (firstHash >>> shift) & MASK;
+        int secondSlot = (secondHash >>> shift) & MASK;
+        if (firstSlot == secondSlot) {
+            return new Branch(1 << firstSlot,
+                    new Object[]{branchOf(first, firstHash, second, secondHash, shift + BITS)});
+        }
+        return firstSlot < secondSlot
+                ? new Branch((1 << firstSlot) | (1 << secondSlot), new Object[]{first, second})
+                : new Branch((1 << firstSlot) | (1 << secondSlot), new Object[]{second, first});
+    }
+
+    private static int hash(String name) {
+        int hash = Objects.hashCode(name);
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Branch {
+        private final int bitmap;
+        private final Object[] slots;
+
+        private Branch(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+    }
+
+    /**
+     * Names with the same hash and their numbers
+     */
+    private static final class Leaf {
+        private final int hash;
+        private final String[] names;
+        private final int[] counts;
+
+        private Leaf(int hash, String[] names, int[] counts) {
+            this.hash = hash;
+            this.names = names;
+            this.counts = counts;
+        }
+
+        private int count(int hash, String name) {
+            if (this.hash != hash) {
+                return 0;
+            }
+            for (int i = 0; i < names.length; i++) {
+                if (Objects.equals(names[i], name)) {
+                    return counts[i];
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * @return changed leaf, this leaf if nothing changed or null if the leaf became empty
+         */
+        private Leaf add(String name, int delta) {
+            int i = 0;
+            while (i < names.length && !Objects.equals(names[i], name)) {
+                i++;
+            }
+            if (i == names.length) {
+                if (delta <= 0) {
+                    return this;
+                }
+                String[] added = Arrays.copyOf(names, i + 1);
+                int[] addedCounts = Arrays.copyOf(counts, i + 1);
+                added[i] = name;
+                addedCounts[i] = delta;
+                return new Leaf(hash, added, addedCounts);
+            }
+            if (delta == 0) {
+                return this;
+            }
+            int count = counts[i] + delta;
+            if (count > 0) {
+                int[] changed = counts.clone();
+                changed[i] = count;
+                return new Leaf(hash, names, changed);
+            }
+            if (names.length == 1) {
+                return null;
+            }
+            String[] left = new String[names.length - 1];
+            int[] leftCounts = new int[names.length - 1];
+            System.arraycopy(names, 0, left, 0, i);
+            System.arraycopy(names, i + 1, left, i, left.length - i);
+            System.arraycopy(counts, 0, leftCounts, 0, i);
+            System.arraycopy(counts, i + 1, leftCounts, i, left.length - i);
+            return new Leaf(hash, left, leftCounts);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.solovev.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Read access to the tree with nodes numbered from 0 in the order of the wide search, so the root is 0;
+ * Frozen, mapped and snapshot trees are written in the format of TreeNode by the one traversal of this interface
+ */
+public interface NumberedTree {
+    /**
+     * Number of the absent node: parent of the root, child of the leaf, sibling of the last child, not found node
+     */
+    int NO_NODE = -1;
+
+    /**
+     * @return number of nodes
+     */
+    int size();
+
+    String getName(int node);
+
+    /**
+     * @return first child of the node or NO_NODE if node has no children
+     */
+    int getFirstChild(int node);
+
+    /**
+     * @return next child of the parent of this node or NO_NODE if node is the last child or the root
+     */
+    int getNextSibling(int node);
+
+    /**
+     * Writes the tree in the format of TreeNode.writeTo: the name of the root,
+     * then the line of every node with children with its name and the names of its children
+     *
+     * @param out       to write to
+     * @param delimiter between words
+     * @throws IOException if output cannot be written
+     */
+    default void writeTo(Appendable out, String delimiter) throws IOException {
+        String delimiterLines = "\n";
+        out.append(getName(0));
+
+        for (int node = 0; node < size(); node++) {
+            //skips all nodes without children
+            if (getFirstChild(node) == NO_NODE) {
+                continue;
+            }
+            out.append(delimiterLines);
+            out.append(getName(node));
+            for (int child = getFirstChild(node); child != NO_NODE; child = getNextSibling(child)) {
+                out.append(delimiter).append(getName(child));
+            }
+        }
+    }
+
+    /**
+     * @return the same text as toString of the TreeNode with this structure
+     */
+    static String toString(NumberedTree tree) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            tree.writeTo(sb, " ");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); //StringBuilder does not throw
+        }
+        return sb.toString();
+    }
+}
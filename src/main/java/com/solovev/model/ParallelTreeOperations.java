@@ -0,0 +1,207 @@
+package com.solovev.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Fork join operations over the subtree;
+ * Each task goes through its part of the tree depth first and keeps not visited subtrees as ranges of slots
+ * of child lists, lists are never copied;
+ * After every SPLIT_INTERVAL visited nodes task gives away its biggest pending subtrees to the new forked task,
+ * so small trees are processed sequentially and big trees are shared between the workers whatever their shape is
+ */
+final class ParallelTreeOperations {
+    /**
+     * Number of nodes task visits sequentially before it offers part of its work to other workers
+     */
+    static final int SPLIT_INTERVAL = 1 << 10;
+    /**
+     * Task does not split while its worker already has this many not taken tasks in the queue
+     */
+    private static final int MAX_SURPLUS_TASKS = 2;
+    /**
+     * Mask of the number of visited nodes after which task checks if the operation is stopped
+     */
+    private static final int STOP_CHECK_MASK = (1 << 6) - 1;
+
+    private ParallelTreeOperations() {
+    }
+
+    /**
+     * @return any node for which predicate is true, other tasks stop as soon as one of them found the node
+     */
+    static Optional<TreeNode> search(TreeNode start, Predicate<TreeNode> predicate) {
+        AtomicReference<TreeNode> found = new AtomicReference<>();
+        new SubtreeTask<Void>(start, node -> {
+            if (predicate.test(node)) {
+                found.compareAndSet(null, node);
+            }
+            return null;
+        }, (first, second) -> null, null, found).invoke();
+        return Optional.ofNullable(found.get());
+    }
+
+    /**
+     * @return results of mapper on all nodes combined with the combiner, starting from identity in every task
+     */
+    static <T> T reduce(TreeNode start, T identity, Function<TreeNode, T> mapper, BinaryOperator<T> combiner) {
+        return new SubtreeTask<>(start, mapper, combiner, identity, null).invoke();
+    }
+
+    static void forEach(TreeNode start, Consumer<TreeNode> action) {
+        new SubtreeTask<Void>(start, node -> {
+            action.accept(node);
+            return null;
+        }, (first, second) -> null, null, null).invoke();
+    }
+
+    private static final class SubtreeTask<T> extends RecursiveTask<T> {
+        private static final int INITIAL_CAPACITY = 16;
+
+        /**
+         * Stack of pending ranges of child lists kept in parallel arrays from base inclusive to top exclusive:
+         * the range on the top is the deepest one, the range on the base holds the biggest subtrees;
+         * from is inclusive, to is exclusive
+         */
+        private TreeNode.ChildList[] lists;
+        private int[] froms;
+        private int[] tos;
+        private int base;
+        private int top;
+        private final Function<TreeNode, T> mapper;
+        private final BinaryOperator<T> combiner;
+        private final T identity;
+        /**
+         * Not null value stops all tasks of the operation; null reference if operation can not be stopped
+         */
+        private final AtomicReference<TreeNode> stop;
+        /**
+         * Node the whole operation starts from, it is not in any range; null for the forked tasks
+         */
+        private TreeNode start;
+
+        private SubtreeTask(TreeNode start, Function<TreeNode, T> mapper, BinaryOperator<T> combiner,
+                            T identity, AtomicReference<TreeNode> stop) {
+            this(null, 0, 0, mapper, combiner, identity, stop);
+            this.start = start;
+        }
+
+        private SubtreeTask(TreeNode.ChildList list, int from, int to, Function<TreeNode, T> mapper,
+                            BinaryOperator<T> combiner, T identity, AtomicReference<TreeNode> stop) {
+            lists = new TreeNode.ChildList[INITIAL_CAPACITY];
+            froms = new int[INITIAL_CAPACITY];
+            tos = new int[INITIAL_CAPACITY];
+            if (list != null) {
+                push(list, from, to);
+            }
+            this.mapper = mapper;
+            this.combiner = combiner;
+            this.identity = identity;
+            this.stop = stop;
+        }
+
+        @Override
+        protected T compute() {
+            T result = identity;
+            if (start != null) {
+                result = visit(start, result);
+            }
+            List<SubtreeTask<T>> forked = new ArrayList<>();
+            int sinceSplit = 0;
+            while (top > base) {
+                if ((sinceSplit & STOP_CHECK_MASK) == 0 && stopped()) {
+                    break;
+                }
+                int last = top - 1;
+                TreeNode node = lists[last].slot(froms[last]++);
+                if (froms[last] == tos[last]) {
+                    lists[--top] = null;
+                }
+                if (node == null) { //empty slot of the detached child
+                    continue;
+                }
+                result = visit(node, result);
+                if (++sinceSplit >= SPLIT_INTERVAL) {
+                    sinceSplit = 0;
+                    SubtreeTask<T> task = split();
+                    if (task != null) {
+                        task.fork();
+                        forked.add(task);
+                    }
+                }
+            }
+            for (SubtreeTask<T> task : forked) {
+                result = combiner.apply(result, task.join());
+            }
+            return result;
+        }
+
+        /**
+         * Maps the node and puts its children to the stack
+         */
+        private T visit(TreeNode node, T result) {
+            result = combiner.apply(result, mapper.apply(node));
+            TreeNode.ChildList children = node.childList();
+            if (!children.isEmpty()) {
+                push(children, 0, children.slots());
+            }
+            return result;
+        }
+
+        /**
+         * Gives the biggest pending subtrees of this task to the new task
+         *
+         * @return new task or null if there is nothing to give away or other workers are busy
+         */
+        private SubtreeTask<T> split() {
+            if (top == base || getSurplusQueuedTaskCount() > MAX_SURPLUS_TASKS) {
+                return null;
+            }
+            TreeNode.ChildList list = lists[base];
+            int from = froms[base];
+            int to = tos[base];
+            if (top - base > 1) {
+                lists[base++] = null;
+            } else if (to - from > 1) {
+                from = (from + to) >>> 1;
+                tos[base] = from;
+            } else {
+                return null;
+            }
+            return new SubtreeTask<>(list, from, to, mapper, combiner, identity, stop);
+        }
+
+        private void push(TreeNode.ChildList list, int from, int to) {
+            if (top == lists.length) {
+                if (base > 0) { //ranges given away free the beginning of the arrays
+                    System.arraycopy(lists, base, lists, 0, top - base);
+                    System.arraycopy(froms, base, froms, 0, top - base);
+                    System.arraycopy(tos, base, tos, 0, top - base);
+                    Arrays.fill(lists, top - base, top, null);
+                    top -= base;
+                    base = 0;
+                } else {
+                    lists = Arrays.copyOf(lists, top * 2);
+                    froms = Arrays.copyOf(froms, top * 2);
+                    tos = Arrays.copyOf(tos, top * 2);
+                }
+            }
+            lists[top] = list;
+            froms[top] = from;
+            tos[top] = to;
+            top++;
+        }
+
+        private boolean stopped() {
+            return stop != null && stop.get() != null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.solovev.model;
+
+/**
+ * Order in which nodes of the tree are visited
+ */
+public enum TraversalOrder {
+    /**
+     * Level by level from top to bottom, nodes of the level from left to right
+     */
+    BREADTH_FIRST,
+    /**
+     * Node goes before its children, subtrees from left to right
+     */
+    DEPTH_FIRST_PRE_ORDER,
+    /**
+     * Node goes after its children, subtrees from left to right
+     */
+    DEPTH_FIRST_POST_ORDER
+}
@@ -0,0 +1,235 @@
+package com.solovev.model;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Node of the treap (randomized balanced binary tree) of MyIndexedList and MyPersistentList:
+ * binary search tree by position and heap by priority, every node knows the size of its subtree;
+ * Operations change in place only the nodes of the given owner and copy all the other nodes on their path,
+ * so the list which owns all its nodes is changed in place and the persistent list copies the paths;
+ * Nodes are read by the lists directly, changed only by the operations of this class
+ *
+ * @param <E> type of the element
+ */
+final class TreapNode<E> {
+    E data;
+    final int priority;
+    /**
+     * Only operations with this owner can change the node in place
+     */
+    private final Object owner;
+    int size = 1;
+    TreapNode<E> left;
+    TreapNode<E> right;
+
+    /**
+     * @param owner of the node, null if node must never be changed after it becomes reachable
+     */
+    TreapNode(E data, Object owner) {
+        this(data, ThreadLocalRandom.current().nextInt(), owner);
+    }
+
+    private TreapNode(E data, int priority, Object owner) {
+        this.data = data;
+        this.priority = priority;
+        this.owner = owner;
+    }
+
+    /**
+     * Copies the node for the new owner
+     */
+    private TreapNode(TreapNode<E> node, Object owner) {
+        this(node.data, node.priority, owner);
+        size = node.size;
+        left = node.left;
+        right = node.right;
+    }
+
+    /**
+     * Recounts size of the subtree after children were changed
+     */
+    private void update() {
+        size = 1 + size(left) + size(right);
+    }
+
+    static int size(TreapNode<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Gets element on the index of the subtree, index must be in the subtree
+     */
+    static <E> E find(TreapNode<E> node, int index) {
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.data;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Inserts node on the index of the subtree
+     *
+     * @param owner of the nodes which can be changed in place, null if all nodes must be copied
+     * @return new root of the subtree
+     */
+    static <E> TreapNode<E> insert(TreapNode<E> node, int index, TreapNode<E> toInsert, Object owner) {
+        if (node == null) {
+            return toInsert;
+        }
+        if (toInsert.priority > node.priority) {
+            TreapNode<E>[] parts = split(node, index, owner);
+            toInsert.left = parts[0];
+            toInsert.right = parts[1];
+            toInsert.update();
+            return toInsert;
+        }
+        node = editable(node, owner);
+        int leftSize = size(node.left);
+        if (index <= leftSize) {
+            node.left = insert(node.left, index, toInsert, owner);
+        } else {
+            node.right = insert(node.right, index - leftSize - 1, toInsert, owner);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Deletes node on the index of the subtree
+     *
+     * @return new root of the subtree
+     */
+    static <E> TreapNode<E> delete(TreapNode<E> node, int index, Object owner) {
+        int leftSize = size(node.left);
+        if (index == leftSize) {
+            return merge(node.left, node.right, owner);
+        }
+        node = editable(node, owner);
+        if (index < leftSize) {
+            node.left = delete(node.left, index, owner);
+        } else {
+            node.right = delete(node.right, index - leftSize - 1, owner);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Replaces element on the index of the subtree
+     *
+     * @return new root of the subtree
+     */
+    static <E> TreapNode<E> replace(TreapNode<E> node, int index, E elem, Object owner) {
+        node = editable(node, owner);
+        int leftSize = size(node.left);
+        if (index == leftSize) {
+            node.data = elem;
+        } else if (index < leftSize) {
+            node.left = replace(node.left, index, elem, owner);
+        } else {
+            node.right = replace(node.right, index - leftSize - 1, elem, owner);
+        }
+        return node;
+    }
+
+    /**
+     * Splits subtree in two: first count elements and the rest
+     *
+     * @return array of two subtree roots, any of them can be null
+     */
+    @SuppressWarnings("unchecked")
+    static <E> TreapNode<E>[] split(TreapNode<E> node, int count, Object owner) {
+        TreapNode<E>[] parts = new TreapNode[2];
+        split(node, count, parts, owner);
+        return parts;
+    }
+
+    private static <E> void split(TreapNode<E> node, int count, TreapNode<E>[] parts, Object owner) {
+        if (node == null) {
+            parts[0] = null;
+            parts[1] = null;
+            return;
+        }
+        node = editable(node, owner);
+        int leftSize = size(node.left);
+        if (leftSize < count) {
+            split(node.right, count - leftSize - 1, parts, owner);
+            node.right = parts[0];
+            parts[0] = node;
+        } else {
+            split(node.left, count, parts, owner);
+            node.left = parts[1];
+            parts[1] = node;
+        }
+        node.update();
+    }
+
+    /**
+     * Joins two subtrees, all elements of the first one go before elements of the second
+     *
+     * @return root of the joined tree
+     */
+    static <E> TreapNode<E> merge(TreapNode<E> first, TreapNode<E> second, Object owner) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            first = editable(first, owner);
+            first.right = merge(first.right, second, owner);
+            first.update();
+            return first;
+        }
+        second = editable(second, owner);
+        second.left = merge(first, second.left, owner);
+        second.update();
+        return second;
+    }
+
+    /**
+     * Builds treap of the elements in linear time: the right spine of the tree is kept in the stack
+     *
+     * @param owner of the new nodes
+     * @return root of the built tree or null if there are no elements
+     */
+    static <E> TreapNode<E> build(Iterable<E> elements, Object owner) {
+        Deque<TreapNode<E>> rightSpine = new ArrayDeque<>();
+        for (E elem : elements) {
+            TreapNode<E> node = new TreapNode<>(elem, owner);
+            TreapNode<E> lastPopped = null;
+            while (!rightSpine.isEmpty() && rightSpine.peek().priority < node.priority) {
+                lastPopped = rightSpine.pop();
+                lastPopped.update(); //its subtree is complete now
+            }
+            node.left = lastPopped;
+            if (!rightSpine.isEmpty()) {
+                rightSpine.peek().right = node;
+            }
+            rightSpine.push(node);
+        }
+        TreapNode<E> built = null;
+        while (!rightSpine.isEmpty()) {
+            built = rightSpine.pop();
+            built.update();
+        }
+        return built;
+    }
+
+    /**
+     * @return the node itself if it belongs to the owner, its copy belonging to the owner otherwise
+     */
+    private static <E> TreapNode<E> editable(TreapNode<E> node, Object owner) {
+        return owner != null && node.owner == owner ? node : new TreapNode<>(node, owner);
+    }
+}
@@ -1,12 +1,52 @@
 package com.solovev.model;
 
+import com.solovev.metrics.Metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 public class TreeNode implements Iterable<TreeNode> {
     private String name;
     private TreeNode parent;
-    private final List<TreeNode> children = new ArrayList<>();
+    private final ChildList children = new ChildList();
+    /**
+     * Slot of this node in the children of its parent, -1 if it has no parent; written only by ChildList
+     */
+    private int slotInParent = -1;
+    /**
+     * Root of the tree this node belongs to, the node itself if it has no parent
+     */
+    private TreeNode root = this;
+    /**
+     * Nodes of the whole tree by their names; kept only by the root, built on the first search by name
+     * and then updated on every change of names and parents
+     */
+    private Map<String, List<TreeNode>> nameIndex;
+    /**
+     * Index for the ancestor queries; kept only by the root, built on the first query and dropped on any change of the tree
+     */
+    private AncestorIndex ancestorIndex;
+    /**
+     * Cached hash of the name and the hashes of all children in their order, so equal subtrees have equal hashes;
+     * if the hash of the node is valid, hashes of all its descendants are valid, so changes invalidate the ancestors
+     * only up to the first already invalid one
+     */
+    private int subtreeHash;
+    private boolean subtreeHashValid;
+    /**
+     * Immutable copy of this subtree, null if the subtree was changed after it was taken;
+     * as with the hash, if the node keeps its snapshot, all its descendants keep theirs
+     */
+    private TreeSnapshot snapshot;
 
     public TreeNode() {
     }
@@ -37,37 +77,222 @@ public class TreeNode implements Iterable<TreeNode> {
                 && child.setParent(this);
     }
 
+    /**
+     * Adds children to the tree node in one pass: ancestors of this node are collected once,
+     * so every child is checked in constant time, and the children list grows at most once;
+     * Children which cannot be appended are skipped, as appendChild does
+     *
+     * @param newChildren to append in their order, null and this node or its ancestors are skipped
+     * @return number of appended children
+     */
+    public int appendChildren(Collection<TreeNode> newChildren) {
+        Set<TreeNode> ancestors = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (TreeNode node = this; node != null; node = node.parent) {
+            ancestors.add(node);
+        }
+        children.ensureCapacity(newChildren.size());
+        int appended = 0;
+        for (TreeNode child : newChildren) {
+            if (child != null && !ancestors.contains(child)) {
+                child.link(this);
+                appended++;
+            }
+        }
+        return appended;
+    }
+
     /**
      * Searches tree from top to bottom and from one to left
      *
      * @param predicate for tree node to check
      * @return first found treeNode for which predicate is true or empty optional if nothing was found
      */
-    public Optional<TreeNode> wideSearch(Predicate<TreeNode> predicate) { //toDo can be done with iterator, but to practice is kept like this
-        if (predicate.test(this)) {
-            return Optional.of(this);
-        }
-        Queue<TreeNode> searchQueue = new ArrayDeque<>(children);
-        return wideSearch(searchQueue, predicate);
+    public Optional<TreeNode> wideSearch(Predicate<TreeNode> predicate) {
+        return search("wideSearch", predicate);
     }
 
-    private Optional<TreeNode> wideSearch(Queue<TreeNode> searchQueue, Predicate<TreeNode> predicate) {
-        if (searchQueue.isEmpty()) {
-            return Optional.empty();
+    /**
+     * Wide search which is recorded by the metrics if they are enabled
+     *
+     * @param operation name of the public method recorded
+     */
+    private Optional<TreeNode> search(String operation, Predicate<TreeNode> predicate) {
+        if (!Metrics.ENABLED) {
+            return traverse(TraversalOrder.BREADTH_FIRST,
+                    (node, depth) -> predicate.test(node) ? TreeVisitor.VisitResult.STOP : TreeVisitor.VisitResult.CONTINUE);
         }
-        TreeNode toCheck = searchQueue.poll();
-        searchQueue.addAll(toCheck.getChildren());
-        return predicate.test(toCheck) ? Optional.of(toCheck) : wideSearch(searchQueue, predicate);
+        long[] visited = new long[1];
+        Optional<TreeNode> found = traverse(TraversalOrder.BREADTH_FIRST, (node, depth) -> {
+            visited[0]++;
+            return predicate.test(node) ? TreeVisitor.VisitResult.STOP : TreeVisitor.VisitResult.CONTINUE;
+        });
+        Metrics.recordTreeSearch(operation, visited[0], found.isPresent());
+        return found;
     }
 
     /**
-     * Searches tree from top to bottom and from one to left
+     * Searches this subtree by all workers of the common fork join pool;
+     * search stops in all tasks as soon as one of them has found the node
+     *
+     * @param predicate for tree node to check, must be safe to call from several threads
+     * @return any treeNode for which predicate is true, not necessarily the first in the search order,
+     * or empty optional if nothing was found
+     */
+    public Optional<TreeNode> parallelSearch(Predicate<TreeNode> predicate) {
+        return ParallelTreeOperations.search(this, predicate);
+    }
+
+    /**
+     * Maps all nodes of this subtree and combines results by all workers of the common fork join pool;
+     * nodes are combined in no particular order
+     *
+     * @param identity value to start combining with in every task, must not change results combined with it
+     * @param mapper   to apply to every node, must be safe to call from several threads
+     * @param combiner associative and commutative function to combine results
+     * @param <T>      type of the result
+     * @return combined result of all nodes
+     */
+    public <T> T parallelReduce(T identity, Function<TreeNode, T> mapper, BinaryOperator<T> combiner) {
+        return ParallelTreeOperations.reduce(this, identity, mapper, combiner);
+    }
+
+    /**
+     * Performs action on all nodes of this subtree by all workers of the common fork join pool, in no particular order
+     *
+     * @param action to perform, must be safe to call from several threads
+     */
+    public void parallelForEach(Consumer<TreeNode> action) {
+        ParallelTreeOperations.forEach(this, action);
+    }
+
+    /**
+     * Creates read only compact copy of this subtree
+     *
+     * @return frozen tree with this node as the root
+     */
+    public FrozenTree freeze() {
+        return new FrozenTree(this);
+    }
+
+    /**
+     * Visits all nodes of this subtree in the given order without recursion
+     *
+     * @param order   of the visit
+     * @param visitor called on every node, can skip children of the node or stop the traversal
+     * @return node on which visitor stopped the traversal or empty optional if all nodes were visited
+     */
+    public Optional<TreeNode> traverse(TraversalOrder order, TreeVisitor visitor) {
+        return traverse(order, Integer.MAX_VALUE, visitor);
+    }
+
+    /**
+     * Visits nodes of this subtree up to the given depth in the given order without recursion
+     *
+     * @param order    of the visit
+     * @param maxDepth deepest level to visit, this node has depth 0
+     * @param visitor  called on every node, can skip children of the node or stop the traversal
+     * @return node on which visitor stopped the traversal or empty optional if all nodes were visited
+     * @throws IllegalArgumentException if max depth is negative
+     */
+    public Optional<TreeNode> traverse(TraversalOrder order, int maxDepth, TreeVisitor visitor) {
+        return Optional.ofNullable(TreeTraversal.traverse(this, order, maxDepth, visitor));
+    }
+
+    /**
+     * Searches tree from top to bottom and from one to left;
+     * nodes are found by the name index of the root, so search takes constant time
+     * unless several nodes in this tree have the same name
      *
      * @param nameToFind to check
      * @return first found treeNode with this name or empty optional if nothing was found
      */
     public Optional<TreeNode> wideSearch(String nameToFind) {
-        return wideSearch(node -> Objects.equals(node.getName(), nameToFind));
+        TreeNode found = null;
+        List<TreeNode> candidates = root.nameIndex().getOrDefault(nameToFind, List.of());
+        for (TreeNode node : candidates) {
+            if (isInSubtree(node)) {
+                if (found != null) {
+                    //several nodes with this name, the first of them in the search order is found by traversal
+                    return wideSearch(n -> Objects.equals(n.getName(), nameToFind));
+                }
+                found = node;
+            }
+        }
+        if (Metrics.ENABLED) {
+            Metrics.recordTreeSearch("wideSearchByName", candidates.size(), found != null);
+        }
+        return Optional.ofNullable(found);
+    }
+
+    /**
+     * Gets index of the names of this tree, builds it if it was not built yet; must be called on the root
+     */
+    private Map<String, List<TreeNode>> nameIndex() {
+        if (nameIndex == null) {
+            nameIndex = new HashMap<>();
+            forEach(node -> addToIndex(nameIndex, node));
+        }
+        return nameIndex;
+    }
+
+    private static void addToIndex(Map<String, List<TreeNode>> index, TreeNode node) {
+        index.computeIfAbsent(node.name, name -> new ArrayList<>(1)).add(node);
+    }
+
+    private static void removeFromIndex(Map<String, List<TreeNode>> index, TreeNode node) {
+        List<TreeNode> sameName = index.get(node.name);
+        for (int i = 0; i < sameName.size(); i++) {
+            if (sameName.get(i) == node) { //nodes are compared by identity, equal nodes can be in the same tree
+                sameName.remove(i);
+                break;
+            }
+        }
+        if (sameName.isEmpty()) {
+            index.remove(node.name);
+        }
+    }
+
+    /**
+     * Moves this node with its subtree to the tree with the given root, updating roots and name indexes of both trees
+     *
+     * @param newRoot root of the tree this node now belongs to
+     */
+    private void moveToRoot(TreeNode newRoot) {
+        TreeNode oldRoot = root;
+        if (oldRoot == newRoot) {
+            return;
+        }
+        //index of the whole tree is dropped, index of the tree this node leaves is updated
+        Map<String, List<TreeNode>> oldIndex = oldRoot == this ? null : oldRoot.nameIndex;
+        nameIndex = null;
+        Map<String, List<TreeNode>> newIndex = newRoot.nameIndex;
+        for (TreeNode node : this) {
+            node.root = newRoot;
+            if (oldIndex != null) {
+                removeFromIndex(oldIndex, node);
+            }
+            if (newIndex != null) {
+                addToIndex(newIndex, node);
+            }
+        }
+    }
+
+    /**
+     * @return true if node is this one or one of its descendants
+     */
+    private boolean isInSubtree(TreeNode node) {
+        if (this == root || node.root != root) {
+            return node.root == this;
+        }
+        if (root.ancestorIndex != null) {
+            return root.ancestorIndex.isAncestorOrSelf(this, node);
+        }
+        for (TreeNode ancestor = node; ancestor != null; ancestor = ancestor.parent) {
+            if (ancestor == this) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -77,36 +302,32 @@ public class TreeNode implements Iterable<TreeNode> {
      * @return true if node is found somewhere in the tree
      */
     public boolean contains(TreeNode node) {
-        return wideSearch(n -> n.equals(node)).isPresent();
+        return search("contains", n -> n.equals(node)).isPresent();
     }
 
     /**
      * Additional equals to overcome stack overflow problem: child -> parent -> child..;
-     * checks nodes based only on their names. Their parent and children quality are guaranteed by iterator;
+     * checks nodes based only on their names. Their parent and children quality are guaranteed by the caller;
      * Note: if tree node will have more data it should be added to this method
      */
-    private boolean equalsNoParentNoChildren(TreeNode node1, TreeNode node2) {
+    private static boolean equalsNoParentNoChildren(TreeNode node1, TreeNode node2) {
         return Objects.equals(node1.getName(), node2.getName());
     }
 
-    /**
-     * Method to construct toString
-     *
-     * @return list of all children names, or emptyList if it is empty
-     */
-    private List<String> getChildrenNames() {
-        return children
-                .stream()
-                .map(TreeNode::getName)
-                .toList();
-    }
-
     public String getName() {
         return name;
     }
 
     public void setName(String name) {
-        this.name = name;
+        subtreeChanged();
+        Map<String, List<TreeNode>> index = root.nameIndex;
+        if (index != null) {
+            removeFromIndex(index, this);
+            this.name = name;
+            addToIndex(index, this);
+        } else {
+            this.name = name;
+        }
     }
 
     public TreeNode getParent() {
@@ -118,29 +339,109 @@ public class TreeNode implements Iterable<TreeNode> {
      * If parent is not null adds this node to its children;
      * If previous parent is not null removes this node from its children
      *
+     * Check that parent is not in the subtree of this node walks up from the parent, so it takes O(depth) time;
+     * this node is removed from the children of the previous parent by identity in constant time
+     *
      * @param parent to be set to this one
      * @return true if parent was set successfully, false if node contains this parent
      */
     public boolean setParent(TreeNode parent) {
-        boolean doesNotContainsParent = !this.contains(parent);
+        boolean doesNotContainsParent = parent == null || !isInSubtree(parent);
         if (doesNotContainsParent) {
-            //removes this node from previous parent if it is not null
-            if (this.parent != null) {
-                this.parent.children.remove(this);
-            }
-            this.parent = parent;
-            if (parent != null) {
-                parent.getChildren().add(this);
-            }
+            link(parent);
         }
 
         return doesNotContainsParent;
     }
 
+    /**
+     * Moves this node to the new parent, parent must not be in the subtree of this node
+     */
+    private void link(TreeNode parent) {
+        root.ancestorIndex = null; //structure of the tree this node leaves is changed
+        //removes this node from previous parent if it is not null
+        if (this.parent != null) {
+            this.parent.children.remove(this);
+            this.parent.subtreeChanged();
+        }
+        this.parent = parent;
+        if (parent != null) {
+            parent.children.append(this);
+            parent.subtreeChanged();
+        }
+        moveToRoot(parent == null ? this : parent.root);
+        root.ancestorIndex = null;
+    }
+
+    /**
+     * Tests if this node is the ancestor of the given one: its parent, parent of the parent and so on;
+     * node is not the ancestor of itself
+     *
+     * @param node to test
+     * @return true if this node is the ancestor of the node, false if it is not or node is null
+     */
+    public boolean isAncestorOf(TreeNode node) {
+        return node != null
+                && node != this
+                && node.root == root
+                && ancestorIndex().isAncestorOrSelf(this, node);
+    }
+
+    /**
+     * @return number of ancestors of this node, 0 for the root
+     */
+    public int depth() {
+        return ancestorIndex().depth(this);
+    }
+
+    /**
+     * Searches the deepest node which is the ancestor or self for both this and the other node
+     *
+     * @param other node to search with
+     * @return lowest common ancestor or empty optional if nodes are in different trees or other is null
+     */
+    public Optional<TreeNode> lowestCommonAncestor(TreeNode other) {
+        if (other == null || other.root != root) {
+            return Optional.empty();
+        }
+        return Optional.of(ancestorIndex().lowestCommonAncestor(this, other));
+    }
+
+    /**
+     * @return list of nodes from this node to the root of its tree, both inclusive
+     */
+    public List<TreeNode> pathToRoot() {
+        List<TreeNode> path = new ArrayList<>();
+        for (TreeNode node = this; node != null; node = node.parent) {
+            path.add(node);
+        }
+        return path;
+    }
+
+    /**
+     * Gets ancestor index of this tree, builds it if tree was changed after the last query
+     */
+    private AncestorIndex ancestorIndex() {
+        if (root.ancestorIndex == null) {
+            root.ancestorIndex = new AncestorIndex(root);
+        }
+        return root.ancestorIndex;
+    }
+
+    /**
+     * @return read only list of the children in the order they were attached
+     */
     public List<TreeNode> getChildren() {
         return children;
     }
 
+    /**
+     * @return children with the direct access to the slots for the traversals of the package
+     */
+    ChildList childList() {
+        return children;
+    }
+
     /**
      * Provides wide going iterator for this tree
      *
@@ -149,31 +450,56 @@ public class TreeNode implements Iterable<TreeNode> {
     @Override
     public Iterator<TreeNode> iterator() {
         return new Iterator<>() {
-            final Queue<TreeNode> treeNodes = new ArrayDeque<>();
-
-            {
-                treeNodes.add(TreeNode.this);
-            }
+            /**
+             * Nodes whose children are not returned yet, children of the current node are returned by slot
+             */
+            final Queue<TreeNode> toExpand = new ArrayDeque<>();
+            TreeNode current;
+            int nextChild;
+            boolean started;
 
             @Override
             public boolean hasNext() {
-                return !treeNodes.isEmpty();
+                if (!started) {
+                    return true;
+                }
+                while (current != null) {
+                    nextChild = current.children.skipEmpty(nextChild);
+                    if (nextChild < current.children.slots()) {
+                        break;
+                    }
+                    current = toExpand.poll();
+                    nextChild = 0;
+                }
+                return current != null;
             }
 
             @Override
             public TreeNode next() {
-                TreeNode polled = null;
-                if (hasNext()) {
-                    polled = treeNodes.poll();
-                    treeNodes.addAll(polled.children);
+                if (!hasNext()) {
+                    return null;
+                }
+                TreeNode next;
+                if (!started) {
+                    started = true;
+                    next = TreeNode.this;
+                } else {
+                    next = current.children.slot(nextChild++);
                 }
-                return polled;
+                if (current == null) {
+                    current = next;
+                } else if (!next.children.isEmpty()) {
+                    toExpand.add(next);
+                }
+                return next;
             }
         };
     }
 
     /**
-     * Trees are equal ONLY if order of all their children matches also
+     * Trees are equal ONLY if order of all their children matches also;
+     * parents are compared as well, from the nearest to the root, without recursion;
+     * subtrees with different hashes are not compared node by node
      * @param o object to compare
      * @return treu if objects considered equal
      */
@@ -182,49 +508,462 @@ public class TreeNode implements Iterable<TreeNode> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
-        TreeNode treeNode = (TreeNode) o;
-
-        if (!Objects.equals(parent, treeNode.parent)) return false;
+        TreeNode thisNode = this;
+        TreeNode otherNode = (TreeNode) o;
+        TreeNode checkedThis = null;
+        TreeNode checkedOther = null;
+        //subtrees of the nodes are compared, then subtrees of their parents without the already compared children
+        while (thisNode != otherNode) {
+            if (thisNode == null || otherNode == null
+                    || thisNode.subtreeHash() != otherNode.subtreeHash()
+                    || !equalSubtrees(thisNode, otherNode, checkedThis, checkedOther)) {
+                return false;
+            }
+            checkedThis = thisNode;
+            checkedOther = otherNode;
+            thisNode = thisNode.parent;
+            otherNode = otherNode.parent;
+        }
+        return true;
+    }
 
-        Iterator<TreeNode> thisTree = iterator();
-        Iterator<TreeNode> otherTree = treeNode.iterator();
-        while (thisTree.hasNext() || otherTree.hasNext()) {
-            if (thisTree.hasNext() != otherTree.hasNext() //if one queue is shorter than other trees are not equal
-                    ||!equalsNoParentNoChildren(thisTree.next(), otherTree.next())) {
+    /**
+     * Compares subtrees level by level; hashes of both subtrees must be already computed
+     *
+     * @param checkedFirst  child of the first subtree which is already known to be equal to the checkedSecond, or null
+     * @param checkedSecond child of the second subtree, skipped if it is on the same place as the checkedFirst
+     */
+    private static boolean equalSubtrees(TreeNode first, TreeNode second, TreeNode checkedFirst, TreeNode checkedSecond) {
+        Deque<TreeNode> pairs = new ArrayDeque<>();
+        pairs.add(first);
+        pairs.add(second);
+        while (!pairs.isEmpty()) {
+            TreeNode node1 = pairs.poll();
+            TreeNode node2 = pairs.poll();
+            if (!equalsNoParentNoChildren(node1, node2) || node1.children.size() != node2.children.size()) {
                 return false;
             }
+            Iterator<TreeNode> children1 = node1.children.iterator();
+            Iterator<TreeNode> children2 = node2.children.iterator();
+            while (children1.hasNext()) {
+                TreeNode child1 = children1.next();
+                TreeNode child2 = children2.next();
+                if (child1 == child2 || child1 == checkedFirst && child2 == checkedSecond) {
+                    continue;
+                }
+                if (child1.subtreeHash != child2.subtreeHash) {
+                    return false;
+                }
+                pairs.add(child1);
+                pairs.add(child2);
+            }
         }
         return true;
     }
 
+    /**
+     * Hash of the name and of the children in their order, parent is not used, so node can be a key of a hash map;
+     * hash is cached and computed again only for the changed nodes and their ancestors
+     */
     @Override
     public int hashCode() {
-        int result = name != null ? name.hashCode() : 0;
-        result = 31 * result + (parent != null ? parent.hashCode() : 0);
-        result = 31 * result + children.hashCode();
-        return result;
+        return subtreeHash();
     }
 
-    @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
+    /**
+     * Gets hash of the subtree, computes hashes of the invalid nodes after hashes of their children without recursion
+     */
+    private int subtreeHash() {
+        if (subtreeHashValid) {
+            return subtreeHash;
+        }
+        TreeNode[] path = new TreeNode[16];
+        int[] nextChildren = new int[16];
+        int top = 0;
+        path[0] = this;
+        while (top >= 0) {
+            TreeNode node = path[top];
+            int next = nextChildren[top];
+            //valid child has valid descendants, so its subtree is skipped
+            while ((next = node.children.skipEmpty(next)) < node.children.slots()
+                    && node.children.slot(next).subtreeHashValid) {
+                next++;
+            }
+            if (next < node.children.slots()) {
+                nextChildren[top] = next + 1;
+                if (++top == path.length) {
+                    path = Arrays.copyOf(path, top * 2);
+                    nextChildren = Arrays.copyOf(nextChildren, top * 2);
+                }
+                path[top] = node.children.slot(next);
+                nextChildren[top] = 0;
+            } else {
+                int hash = Objects.hashCode(node.name);
+                for (TreeNode child : node.children) {
+                    hash = 31 * hash + child.subtreeHash;
+                }
+                node.subtreeHash = hash;
+                node.subtreeHashValid = true;
+                path[top--] = null;
+            }
+        }
+        return subtreeHash;
+    }
+
+    /**
+     * Gets immutable copy of this subtree; snapshots are kept by the nodes, so only the nodes changed after
+     * the previous call and their ancestors are copied, unchanged subtrees are shared with the previous snapshots;
+     * copies are made after the copies of the children without recursion
+     */
+    TreeSnapshot snapshot() {
+        return snapshot(null);
+    }
+
+    /**
+     * Gets immutable copy of this subtree as snapshot() does
+     *
+     * @param created to add the snapshots copied by this call to, or null
+     */
+    TreeSnapshot snapshot(List<TreeSnapshot> created) {
+        if (snapshot != null) {
+            return snapshot;
+        }
+        TreeNode[] path = new TreeNode[16];
+        int[] nextChildren = new int[16];
+        int top = 0;
+        path[0] = this;
+        while (top >= 0) {
+            TreeNode node = path[top];
+            int next = nextChildren[top];
+            //child with the snapshot has snapshots of all descendants, so its subtree is skipped
+            while ((next = node.children.skipEmpty(next)) < node.children.slots()
+                    && node.children.slot(next).snapshot != null) {
+                next++;
+            }
+            if (next < node.children.slots()) {
+                nextChildren[top] = next + 1;
+                if (++top == path.length) {
+                    path = Arrays.copyOf(path, top * 2);
+                    nextChildren = Arrays.copyOf(nextChildren, top * 2);
+                }
+                path[top] = node.children.slot(next);
+                nextChildren[top] = 0;
+            } else {
+                TreeSnapshot[] childSnapshots = new TreeSnapshot[node.children.size()];
+                int i = 0;
+                for (TreeNode child : node.children) {
+                    childSnapshots[i++] = child.snapshot;
+                }
+                node.snapshot = new TreeSnapshot(node.name, childSnapshots);
+                if (created != null) {
+                    created.add(node.snapshot);
+                }
+                path[top--] = null;
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops hashes and snapshots of this node and of its ancestors;
+     * ancestors of the node without both of them do not have them already
+     */
+    private void subtreeChanged() {
+        for (TreeNode node = this; node != null && (node.subtreeHashValid || node.snapshot != null); node = node.parent) {
+            node.subtreeHashValid = false;
+            node.snapshot = null;
+        }
+    }
+
+    /**
+     * Writes the same text as toString to the output line by line, the whole text is never kept in memory
+     *
+     * @param out to write to
+     * @throws IOException if output cannot be written
+     */
+    public void writeTo(Appendable out) throws IOException {
+        writeTo(out, " ");
+    }
+
+    /**
+     * Writes this subtree in the format read by TreeNodeCreator.buildTree:
+     * the first line is the name of this node, then every node with children has the line
+     * with its name and the names of its children, nodes go in the wide search order;
+     * The tree is built back the same only if names are unique, not null and do not contain the delimiter,
+     * and the name of no node equals the name of its first child, as such a line stops the reading
+     *
+     * @param out       to write to
+     * @param delimiter between words
+     * @throws IOException if output cannot be written
+     */
+    public void writeTo(Appendable out, String delimiter) throws IOException {
         String delimiterLines = "\n";
-        String delimiterWords = " ";
-        sb.append(getName());
+        out.append(getName());
 
         if (!getChildren().isEmpty()) { //if node does not have children shows only node name
             for (TreeNode treeNode : this) {
                 //skips all nodes without children
-                if (treeNode.getChildren().isEmpty()) {
+                if (treeNode.children.isEmpty()) {
                     continue;
                 }
-                sb.append(delimiterLines);
-                sb.append(treeNode.getName());
-                sb.append(delimiterWords)
-                        .append(String.join(delimiterWords, treeNode.getChildrenNames()));
+                out.append(delimiterLines);
+                out.append(treeNode.getName());
+                for (TreeNode child : treeNode.children) {
+                    out.append(delimiter).append(child.getName());
+                }
             }
         }
+    }
 
+    /**
+     * Writes this subtree in the format read by TreeNodeCreator.buildTree to the channel in UTF-8
+     * through the buffer of the fixed size; channel is not closed
+     *
+     * @param channel   to write to
+     * @param delimiter between words
+     * @throws IOException if channel cannot be written
+     */
+    public void writeTo(WritableByteChannel channel, String delimiter) throws IOException {
+        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+        writeTo(writer, delimiter);
+        writer.flush();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        try {
+            writeTo(sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); //StringBuilder does not throw
+        }
         return sb.toString();
     }
+
+    /**
+     * Children of the tree node in the order they were attached, read only for everybody except the tree node;
+     * Every child knows its slot in the array, so it is detached in constant time by identity:
+     * its slot is emptied and the children after it are not moved;
+     * Empty slots at both ends are not kept, the other empty slots are dropped when they are more than the children
+     * or when the array is full and at least half of it is empty, so the array is at most twice bigger than the children;
+     * While there are empty slots, the numbers of children in the slots are kept in the Fenwick tree,
+     * so positional access finds the slot in logarithmic time without moving the children;
+     * Reading never changes the list, so any number of threads can read it while it is not changed
+     * and traversals of the package can keep slot positions while the nodes they visit are read
+     */
+    static final class ChildList extends AbstractList<TreeNode> implements RandomAccess {
+        private static final TreeNode[] NO_NODES = {};
+
+        private TreeNode[] slots = NO_NODES;
+        /**
+         * First used slot, slots before it are empty
+         */
+        private int start;
+        /**
+         * End of the used slots, slots from it are empty
+         */
+        private int end;
+        /**
+         * Number of empty slots between the start and the end
+         */
+        private int empty;
+        /**
+         * Fenwick tree of the numbers of children in the slots, element i + 1 is for the slot i;
+         * kept only while there are empty slots between the start and the end, null otherwise
+         */
+        private int[] counts;
+
+        /**
+         * Gets child by position; takes constant time without empty slots and logarithmic time with them
+         *
+         * @throws IndexOutOfBoundsException if index is < 0 or >= number of children
+         */
+        @Override
+        public TreeNode get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " is out of " + size() + " children");
+            }
+            if (empty == 0) {
+                return slots[start + index];
+            }
+            //descends the Fenwick tree to the last slot before which there are no more than index children
+            int slot = 0;
+            int remaining = index + 1;
+            for (int step = Integer.highestOneBit(slots.length); step > 0; step >>= 1) {
+                if (slot + step <= slots.length && counts[slot + step] < remaining) {
+                    slot += step;
+                    remaining -= counts[slot];
+                }
+            }
+            return slots[slot];
+        }
+
+        @Override
+        public int size() {
+            return end - start - empty;
+        }
+
+        @Override
+        public Iterator<TreeNode> iterator() {
+            return new Iterator<>() {
+                int next = skipEmpty(start);
+
+                @Override
+                public boolean hasNext() {
+                    return next < end;
+                }
+
+                @Override
+                public TreeNode next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    TreeNode child = slots[next];
+                    next = skipEmpty(next + 1);
+                    return child;
+                }
+            };
+        }
+
+        /**
+         * @return end of the used slots; slots from 0 to this number exclusive keep all children in their order
+         */
+        int slots() {
+            return end;
+        }
+
+        /**
+         * @return child in the slot or null if slot is empty
+         */
+        TreeNode slot(int slot) {
+            return slots[slot];
+        }
+
+        /**
+         * @return first not empty slot starting from the given one, or the end of the used slots if there is no such slot
+         */
+        int skipEmpty(int slot) {
+            while (slot < end && slots[slot] == null) {
+                slot++;
+            }
+            return slot;
+        }
+
+        /**
+         * Attaches child to the end
+         */
+        void append(TreeNode child) {
+            ensureCapacity(1);
+            child.slotInParent = end;
+            slots[end] = child;
+            if (counts != null) {
+                addCount(end, 1);
+            }
+            end++;
+        }
+
+        /**
+         * Detaches child by identity, child must be in this list
+         */
+        void remove(TreeNode child) {
+            int slot = child.slotInParent;
+            slots[slot] = null;
+            child.slotInParent = -1;
+            if (counts != null) {
+                addCount(slot, -1);
+            }
+            if (slot == end - 1) {
+                end--;
+                while (end > start && slots[end - 1] == null) {
+                    end--;
+                    empty--;
+                }
+            } else if (slot == start) {
+                start++;
+                while (slots[start] == null) { //there is a child before the end
+                    start++;
+                    empty--;
+                }
+            } else {
+                empty++;
+            }
+            if (start == end) {
+                start = 0;
+                end = 0;
+                empty = 0;
+            }
+            if (empty == 0) {
+                counts = null;
+            } else if (empty > size()) {
+                compact();
+            } else if (counts == null) {
+                buildCounts();
+            }
+        }
+
+        /**
+         * Makes room for the given number of children to append, growing the array at most once;
+         * empty slots are dropped instead of growing if they are at least the half of the used slots
+         */
+        void ensureCapacity(int toAppend) {
+            if (end + toAppend <= slots.length) {
+                return;
+            }
+            if ((start + empty) * 2 >= end) {
+                compact();
+            }
+            if (end + toAppend > slots.length) {
+                slots = Arrays.copyOf(slots, Math.max(end + toAppend, slots.length * 2));
+                if (counts != null) {
+                    buildCounts();
+                }
+            }
+        }
+
+        /**
+         * Moves children to the beginning of the array, dropping empty slots
+         */
+        private void compact() {
+            if (start == 0 && empty == 0) {
+                return;
+            }
+            int size = 0;
+            for (int slot = start; slot < end; slot++) {
+                TreeNode child = slots[slot];
+                if (child != null) {
+                    child.slotInParent = size;
+                    slots[size++] = child;
+                }
+            }
+            Arrays.fill(slots, size, end, null);
+            start = 0;
+            end = size;
+            empty = 0;
+            counts = null;
+        }
+
+        /**
+         * Builds the Fenwick tree of the children in the slots in linear time
+         */
+        private void buildCounts() {
+            counts = new int[slots.length + 1];
+            for (int slot = start; slot < end; slot++) {
+                if (slots[slot] != null) {
+                    counts[slot + 1] = 1;
+                }
+            }
+            for (int i = 1; i <= slots.length; i++) {
+                int parent = i + (i & -i);
+                if (parent <= slots.length) {
+                    counts[parent] += counts[i];
+                }
+            }
+        }
+
+        private void addCount(int slot, int delta) {
+            for (int i = slot + 1; i <= slots.length; i += i & -i) {
+                counts[i] += delta;
+            }
+        }
+    }
 }
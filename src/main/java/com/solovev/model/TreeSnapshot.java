@@ -0,0 +1,222 @@
+package com.solovev.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.function.Predicate;
+
+/**
+ * Immutable copy of the subtree, taken by the tree node and read by the readers of ConcurrentTree;
+ * Snapshot does not know its parent, so the snapshot of the unchanged subtree is shared by the snapshots
+ * of all following versions of the tree, even if the subtree was moved, and a change copies only the changed nodes
+ * and their ancestors;
+ * All fields are final, so snapshot can be read by any number of threads without locking
+ */
+public final class TreeSnapshot implements Iterable<TreeSnapshot> {
+    private final String name;
+    private final TreeSnapshot[] children;
+    /**
+     * Number of nodes in this subtree
+     */
+    private final int size;
+
+    /**
+     * @param children snapshots of the children in their order, array is not copied and must not be changed
+     */
+    TreeSnapshot(String name, TreeSnapshot[] children) {
+        this.name = name;
+        this.children = children;
+        int size = 1;
+        for (TreeSnapshot child : children) {
+            size += child.size;
+        }
+        this.size = size;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return read only list of the children in their order
+     */
+    public List<TreeSnapshot> getChildren() {
+        return Collections.unmodifiableList(Arrays.asList(children));
+    }
+
+    /**
+     * @return number of nodes in this subtree, takes constant time
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Searches tree from top to bottom and from one to left
+     *
+     * @param predicate for the node to check
+     * @return first found node for which predicate is true or empty optional if nothing was found
+     */
+    public Optional<TreeSnapshot> wideSearch(Predicate<TreeSnapshot> predicate) {
+        for (TreeSnapshot node : this) {
+            if (predicate.test(node)) {
+                return Optional.of(node);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Searches tree from top to bottom and from one to left
+     *
+     * @param nameToFind to check
+     * @return first found node with this name or empty optional if nothing was found
+     */
+    public Optional<TreeSnapshot> wideSearch(String nameToFind) {
+        return wideSearch(node -> Objects.equals(node.name, nameToFind));
+    }
+
+    /**
+     * Searches tree as wideSearch does and keeps the parents of the visited nodes,
+     * as the snapshot does not know them
+     *
+     * @param predicate for the node to check
+     * @return nodes from the first found node to this one, both inclusive, or empty list if nothing was found
+     */
+    public List<TreeSnapshot> pathToRoot(Predicate<TreeSnapshot> predicate) {
+        //nodes in the wide search order and numbers of their parents in it
+        List<TreeSnapshot> order = new ArrayList<>();
+        int[] parents = new int[16];
+        order.add(this);
+        parents[0] = -1;
+        for (int node = 0; node < order.size(); node++) {
+            TreeSnapshot snapshot = order.get(node);
+            if (predicate.test(snapshot)) {
+                List<TreeSnapshot> path = new ArrayList<>();
+                for (int onPath = node; onPath != -1; onPath = parents[onPath]) {
+                    path.add(order.get(onPath));
+                }
+                return path;
+            }
+            if (order.size() + snapshot.children.length > parents.length) {
+                parents = Arrays.copyOf(parents, Math.max(parents.length * 2, order.size() + snapshot.children.length));
+            }
+            for (TreeSnapshot child : snapshot.children) {
+                parents[order.size()] = node;
+                order.add(child);
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Creates mutable copy of this subtree
+     *
+     * @return root of the new tree
+     */
+    public TreeNode toTreeNode() {
+        TreeNode root = new TreeNode(name);
+        Queue<TreeSnapshot> snapshots = new ArrayDeque<>();
+        Queue<TreeNode> copies = new ArrayDeque<>();
+        snapshots.add(this);
+        copies.add(root);
+        while (!snapshots.isEmpty()) {
+            TreeSnapshot snapshot = snapshots.poll();
+            TreeNode copy = copies.poll();
+            for (TreeSnapshot child : snapshot.children) {
+                TreeNode childCopy = new TreeNode(child.name);
+                copy.appendChild(childCopy);
+                snapshots.add(child);
+                copies.add(childCopy);
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Provides wide going iterator over this subtree
+     */
+    @Override
+    public Iterator<TreeSnapshot> iterator() {
+        return new Iterator<>() {
+            final Queue<TreeSnapshot> toVisit = new ArrayDeque<>(List.of(TreeSnapshot.this));
+
+            @Override
+            public boolean hasNext() {
+                return !toVisit.isEmpty();
+            }
+
+            @Override
+            public TreeSnapshot next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                TreeSnapshot node = toVisit.poll();
+                Collections.addAll(toVisit, node.children);
+                return node;
+            }
+        };
+    }
+
+    /**
+     * The same format as the TreeNode has
+     */
+    @Override
+    public String toString() {
+        return NumberedTree.toString(new Numbered(this));
+    }
+
+    /**
+     * Numbered view of the snapshot made for one traversal: nodes in the wide search order and their links
+     */
+    private static final class Numbered implements NumberedTree {
+        private final TreeSnapshot[] order;
+        private final int[] firstChildren;
+        private final int[] nextSiblings;
+
+        private Numbered(TreeSnapshot root) {
+            order = new TreeSnapshot[root.size];
+            firstChildren = new int[root.size];
+            nextSiblings = new int[root.size];
+            order[0] = root;
+            nextSiblings[0] = NO_NODE;
+            int count = 1;
+            //children of one parent get consecutive numbers when their parent is taken from the order
+            for (int node = 0; node < count; node++) {
+                TreeSnapshot[] children = order[node].children;
+                firstChildren[node] = children.length == 0 ? NO_NODE : count;
+                for (int i = 0; i < children.length; i++, count++) {
+                    order[count] = children[i];
+                    nextSiblings[count] = i + 1 < children.length ? count + 1 : NO_NODE;
+                }
+            }
+        }
+
+        @Override
+        public int size() {
+            return order.length;
+        }
+
+        @Override
+        public String getName(int node) {
+            return order[node].name;
+        }
+
+        @Override
+        public int getFirstChild(int node) {
+            return firstChildren[node];
+        }
+
+        @Override
+        public int getNextSibling(int node) {
+            return nextSiblings[node];
+        }
+    }
+}
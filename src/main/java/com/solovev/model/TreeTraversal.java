@@ -0,0 +1,127 @@
+package com.solovev.model;
+
+import com.solovev.model.TreeVisitor.VisitResult;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Iterative traversals of the tree, so the depth of the tree is limited only by the memory;
+ * Children are read from the lists of their parents by slot, lists are never copied
+ */
+final class TreeTraversal {
+    private static final int INITIAL_PATH_CAPACITY = 16;
+
+    private TreeTraversal() {
+    }
+
+    /**
+     * Visits nodes of the subtree in the given order
+     *
+     * @param start    node to start from, it has depth 0
+     * @param order    of the visit
+     * @param maxDepth deepest level to visit, 0 visits only the start node
+     * @param visitor  to call on each node
+     * @return node on which visitor returned STOP or null if traversal went through the whole subtree
+     * @throws IllegalArgumentException if max depth is negative
+     */
+    static TreeNode traverse(TreeNode start, TraversalOrder order, int maxDepth, TreeVisitor visitor) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Max depth must not be negative but was " + maxDepth);
+        }
+        return switch (order) {
+            case BREADTH_FIRST -> breadthFirst(start, maxDepth, visitor);
+            case DEPTH_FIRST_PRE_ORDER -> depthFirst(start, maxDepth, visitor, false);
+            case DEPTH_FIRST_POST_ORDER -> depthFirst(start, maxDepth, visitor, true);
+        };
+    }
+
+    /**
+     * Children are visited when their parent is taken from the queue, so only nodes with children to visit are queued
+     */
+    private static TreeNode breadthFirst(TreeNode start, int maxDepth, TreeVisitor visitor) {
+        VisitResult result = visitor.visit(start, 0);
+        if (result == VisitResult.STOP) {
+            return start;
+        }
+        if (result == VisitResult.SKIP_CHILDREN || maxDepth == 0) {
+            return null;
+        }
+        Deque<TreeNode> toExpand = new ArrayDeque<>();
+        toExpand.add(start);
+        int childrenDepth = 1;
+        int leftInLevel = 1;
+        int nextLevelSize = 0;
+        while (!toExpand.isEmpty()) {
+            TreeNode.ChildList children = toExpand.poll().childList();
+            for (int i = children.skipEmpty(0); i < children.slots(); i = children.skipEmpty(i + 1)) {
+                TreeNode child = children.slot(i);
+                result = visitor.visit(child, childrenDepth);
+                if (result == VisitResult.STOP) {
+                    return child;
+                }
+                if (result == VisitResult.CONTINUE && childrenDepth < maxDepth && !child.getChildren().isEmpty()) {
+                    toExpand.add(child);
+                    nextLevelSize++;
+                }
+            }
+            if (--leftInLevel == 0) {
+                leftInLevel = nextLevelSize;
+                nextLevelSize = 0;
+                childrenDepth++;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Path from the start node to the current one is kept in the arrays together with positions of the next children;
+     * depth of the node is its place in the path
+     */
+    private static TreeNode depthFirst(TreeNode start, int maxDepth, TreeVisitor visitor, boolean postOrder) {
+        if (!postOrder) {
+            VisitResult result = visitor.visit(start, 0);
+            if (result == VisitResult.STOP) {
+                return start;
+            }
+            if (result == VisitResult.SKIP_CHILDREN) {
+                return null;
+            }
+        }
+        TreeNode[] path = new TreeNode[INITIAL_PATH_CAPACITY];
+        int[] nextChildren = new int[INITIAL_PATH_CAPACITY];
+        int top = 0;
+        path[0] = start;
+        while (top >= 0) {
+            TreeNode node = path[top];
+            TreeNode.ChildList children = node.childList();
+            int next = children.skipEmpty(nextChildren[top]);
+            if (top < maxDepth && next < children.slots()) {
+                nextChildren[top] = next + 1;
+                TreeNode child = children.slot(next);
+                if (!postOrder) {
+                    VisitResult result = visitor.visit(child, top + 1);
+                    if (result == VisitResult.STOP) {
+                        return child;
+                    }
+                    if (result == VisitResult.SKIP_CHILDREN) {
+                        continue;
+                    }
+                }
+                if (++top == path.length) {
+                    path = Arrays.copyOf(path, top * 2);
+                    nextChildren = Arrays.copyOf(nextChildren, top * 2);
+                }
+                path[top] = child;
+                nextChildren[top] = 0;
+            } else {
+                if (postOrder && visitor.visit(node, top) == VisitResult.STOP) {
+                    return node;
+                }
+                path[top--] = null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.solovev.model;
+
+/**
+ * Callback of the tree traversal, decides how the traversal goes on after each visited node
+ */
+@FunctionalInterface
+public interface TreeVisitor {
+    /**
+     * @param node  visited node
+     * @param depth of the node counting from the node where traversal started, which has depth 0
+     * @return how to go on
+     */
+    VisitResult visit(TreeNode node, int depth);
+
+    enum VisitResult {
+        /**
+         * Goes on with the next node
+         */
+        CONTINUE,
+        /**
+         * Children of the node are not visited; in the post order children are already visited, so it acts as CONTINUE
+         */
+        SKIP_CHILDREN,
+        /**
+         * Traversal ends on this node
+         */
+        STOP
+    }
+}
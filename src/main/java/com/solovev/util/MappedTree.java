@@ -0,0 +1,214 @@
+package com.solovev.util;
+
+import com.solovev.model.NumberedTree;
+import com.solovev.model.TreeNode;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Tree served directly from the memory mapped file written by TreeNodeBinaryFormat;
+ * Nodes have the same numbers as in the file, so the root is 0 and -1 is the absent node;
+ * Names are decoded on the first request, TreeNodes are created only when they are materialized
+ */
+public class MappedTree implements NumberedTree {
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int nameCount;
+    private final int tableSize;
+    private final int nullNameId;
+    /**
+     * Positions of the sections in the buffer
+     */
+    private final int nameOffsetsStart;
+    private final int tableStart;
+    private final int firstOccurrencesStart;
+    private final int parentsStart;
+    private final int firstChildrenStart;
+    private final int nextSiblingsStart;
+    private final int nameIdsStart;
+    private final int nameBytesStart;
+    private final int length;
+    /**
+     * Names decoded so far by number of the name
+     */
+    private final String[] decodedNames;
+
+    /**
+     * @param buffer with the whole file, magic and version are already checked
+     */
+    MappedTree(ByteBuffer buffer) {
+        this.buffer = buffer;
+        size = buffer.getInt(2 * Integer.BYTES);
+        nameCount = buffer.getInt(3 * Integer.BYTES);
+        tableSize = buffer.getInt(4 * Integer.BYTES);
+        nullNameId = buffer.getInt(5 * Integer.BYTES);
+        nameOffsetsStart = TreeNodeBinaryFormat.HEADER_SIZE;
+        tableStart = nameOffsetsStart + (nameCount + 1) * Integer.BYTES;
+        firstOccurrencesStart = tableStart + tableSize * Integer.BYTES;
+        parentsStart = firstOccurrencesStart + nameCount * Integer.BYTES;
+        firstChildrenStart = parentsStart + size * Integer.BYTES;
+        nextSiblingsStart = firstChildrenStart + size * Integer.BYTES;
+        nameIdsStart = nextSiblingsStart + size * Integer.BYTES;
+        nameBytesStart = nameIdsStart + size * Integer.BYTES;
+        length = nameBytesStart + buffer.getInt(6 * Integer.BYTES);
+        decodedNames = new String[nameCount];
+    }
+
+    /**
+     * @return number of nodes
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return number of distinct names
+     */
+    public int nameCount() {
+        return nameCount;
+    }
+
+    @Override
+    public String getName(int node) {
+        int nameId = intAt(nameIdsStart, checkNode(node));
+        if (nameId == nullNameId) {
+            return null;
+        }
+        String name = decodedNames[nameId];
+        if (name == null) {
+            int from = intAt(nameOffsetsStart, nameId);
+            byte[] bytes = new byte[intAt(nameOffsetsStart, nameId + 1) - from];
+            buffer.get(nameBytesStart + from, bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+            decodedNames[nameId] = name;
+        }
+        return name;
+    }
+
+    /**
+     * @return parent of the node or NO_NODE for the root
+     */
+    public int getParent(int node) {
+        return intAt(parentsStart, checkNode(node));
+    }
+
+    /**
+     * @return first child of the node or NO_NODE if node has no children
+     */
+    @Override
+    public int getFirstChild(int node) {
+        return intAt(firstChildrenStart, checkNode(node));
+    }
+
+    /**
+     * @return next child of the parent of this node or NO_NODE if node is the last child or the root
+     */
+    @Override
+    public int getNextSibling(int node) {
+        return intAt(nextSiblingsStart, checkNode(node));
+    }
+
+    /**
+     * Searches tree from top to bottom and from one to left by the hash table of the file;
+     * names are compared as bytes in the mapped buffer, nothing is decoded
+     *
+     * @param nameToFind to check
+     * @return first found node with this name or NO_NODE if nothing was found
+     */
+    public int wideSearch(String nameToFind) {
+        if (nameToFind == null) {
+            return nullNameId == NO_NODE ? NO_NODE : intAt(firstOccurrencesStart, nullNameId);
+        }
+        byte[] bytes = nameToFind.getBytes(StandardCharsets.UTF_8);
+        for (int slot = TreeNodeBinaryFormat.slot(nameToFind, tableSize); ; slot = (slot + 1) & (tableSize - 1)) {
+            int entry = intAt(tableStart, slot);
+            if (entry == 0) {
+                return NO_NODE;
+            }
+            int nameId = entry - 1;
+            if (nameId != nullNameId && nameEquals(nameId, bytes)) {
+                return intAt(firstOccurrencesStart, nameId);
+            }
+        }
+    }
+
+    /**
+     * Creates mutable copy of the subtree of the node, each call creates new nodes
+     *
+     * @param node root of the subtree to copy
+     * @return root of the new tree
+     */
+    public TreeNode materialize(int node) {
+        TreeNode root = new TreeNode(getName(node));
+        //children of one parent have consecutive numbers and go after their parent, so the subtree is copied in one pass
+        TreeNode[] copies = new TreeNode[16];
+        int[] ids = new int[16];
+        copies[0] = root;
+        ids[0] = node;
+        int count = 1;
+        for (int i = 0; i < count; i++) {
+            for (int child = getFirstChild(ids[i]); child != NO_NODE; child = getNextSibling(child)) {
+                if (count == copies.length) {
+                    copies = Arrays.copyOf(copies, count * 2);
+                    ids = Arrays.copyOf(ids, count * 2);
+                }
+                copies[count] = new TreeNode(getName(child));
+                copies[i].appendChild(copies[count]);
+                ids[count++] = child;
+            }
+            copies[i] = null; //expanded node is not needed any more
+        }
+        return root;
+    }
+
+    /**
+     * Creates mutable copy of the whole tree, each call creates new nodes, so changes of one copy are not seen by others
+     *
+     * @return root of the new tree
+     */
+    public TreeNode materialize() {
+        return materialize(0);
+    }
+
+    /**
+     * @return number of bytes in the file according to its header
+     */
+    long length() {
+        return length;
+    }
+
+    private boolean nameEquals(int nameId, byte[] bytes) {
+        int from = intAt(nameOffsetsStart, nameId);
+        if (intAt(nameOffsetsStart, nameId + 1) - from != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(nameBytesStart + from + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int intAt(int sectionStart, int index) {
+        return buffer.getInt(sectionStart + index * Integer.BYTES);
+    }
+
+    private int checkNode(int node) {
+        if (node < 0 || node >= size) {
+            throw new IndexOutOfBoundsException("Node " + node + " is not in the tree of size " + size);
+        }
+        return node;
+    }
+
+    /**
+     * The same format as the TreeNode has
+     */
+    @Override
+    public String toString() {
+        return NumberedTree.toString(this);
+    }
+}
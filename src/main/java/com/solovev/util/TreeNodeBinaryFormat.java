@@ -0,0 +1,136 @@
+package com.solovev.util;
+
+import com.solovev.model.FrozenTree;
+import com.solovev.model.TreeNode;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary file format of the tree, which is read without parsing;
+ * All numbers are big endian ints, sections go one after another:
+ * header: magic, version, node count, name count, hash table size, number of the null name or -1, length of name bytes, reserved;
+ * name offsets: name count + 1 offsets of the names in the name bytes;
+ * hash table: number of the name + 1 or 0 for the empty slot, linear probing by the String hash code of the name;
+ * first occurrences: first node in the wide search order by number of the name;
+ * parents, first children, next siblings, name numbers: by number of the node, -1 for the absent node;
+ * name bytes: names in UTF-8;
+ * Nodes are numbered in the wide search order, so the root is 0
+ */
+public class TreeNodeBinaryFormat {
+    static final int MAGIC = 0x54524545; //TREE
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8 * Integer.BYTES;
+
+    /**
+     * Writes the subtree of the node to the file, node becomes the root of the written tree
+     *
+     * @param root of the subtree to write
+     * @param file to write to, replaced if exists
+     * @throws IOException if file cannot be written
+     */
+    public static void write(TreeNode root, Path file) throws IOException {
+        FrozenTree tree = root.freeze();
+        int size = tree.size();
+
+        //frozen tree has already numbered the names in the order of their first occurrence and hashed them
+        int nameCount = tree.nameCount();
+        int[] table = tree.copyNameTable();
+        int[] firstOccurrences = new int[nameCount];
+        for (int node = 0, nextNameId = 0; nextNameId < nameCount; node++) {
+            if (tree.getNameId(node) == nextNameId) {
+                firstOccurrences[nextNameId++] = node;
+            }
+        }
+        byte[][] nameBytes = new byte[nameCount][];
+        long namesLength = 0;
+        for (int nameId = 0; nameId < nameCount; nameId++) {
+            String name = tree.getNameById(nameId);
+            nameBytes[nameId] = name == null ? new byte[0] : name.getBytes(StandardCharsets.UTF_8);
+            namesLength += nameBytes[nameId].length;
+        }
+        int nullNode = tree.wideSearch((String) null);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(size);
+            out.writeInt(nameCount);
+            out.writeInt(table.length);
+            out.writeInt(nullNode == FrozenTree.NO_NODE ? -1 : tree.getNameId(nullNode));
+            out.writeInt(Math.toIntExact(namesLength));
+            out.writeInt(0);
+
+            int offset = 0;
+            for (byte[] bytes : nameBytes) {
+                out.writeInt(offset);
+                offset += bytes.length;
+            }
+            out.writeInt(offset);
+            writeInts(out, table);
+            writeInts(out, firstOccurrences);
+            for (int node = 0; node < size; node++) {
+                out.writeInt(tree.getParent(node));
+            }
+            for (int node = 0; node < size; node++) {
+                out.writeInt(tree.getFirstChild(node));
+            }
+            for (int node = 0; node < size; node++) {
+                out.writeInt(tree.getNextSibling(node));
+            }
+            for (int node = 0; node < size; node++) {
+                out.writeInt(tree.getNameId(node));
+            }
+            for (byte[] bytes : nameBytes) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Maps the file written by write to the memory; nothing is read until it is requested
+     *
+     * @param file to read
+     * @return tree served from the mapped file
+     * @throws IOException if file cannot be read, is not a tree file or is bigger than 2GB
+     */
+    public static MappedTree read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Tree file is bigger than 2GB: " + file);
+            }
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a tree file: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("Not a tree file of version " + VERSION + ": " + file);
+            }
+            MappedTree tree = new MappedTree(buffer);
+            if (tree.length() != channel.size()) {
+                throw new IOException("Tree file is damaged, expected " + tree.length() + " bytes: " + file);
+            }
+            return tree;
+        }
+    }
+
+    /**
+     * The same hashing as the frozen tree has, so its name table is written as is
+     */
+    static int slot(String name, int tableSize) {
+        return FrozenTree.nameSlot(name, tableSize);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+}
@@ -1,18 +1,32 @@
 package com.solovev.util;
 
+import com.solovev.metrics.Metrics;
 import com.solovev.model.TreeNode;
 
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
  * Creates a tree based on string.
  */
 public class TreeNodeCreator {
+    /**
+     * Size of the part of the file mapped to the memory at once
+     */
+    private static final int WINDOW_SIZE = 1 << 26;
+
     /**
      * Builds treeNode based on scanner instance of multiline string, where first line is the main root tree,
      * and all rest represent its child nodes;
      * Note first line always count as a main root name;
+     * Lines are added to the tree as they are read, nodes are found by names in the hash map
      *
      * @param input     scanner input in the form of multiline string. it stops when first word in line equals to second
      * @param delimiter delimiter between words
@@ -21,21 +35,113 @@ public class TreeNodeCreator {
      *                                previously created child or sub child node of the main node
      */
     public static TreeNode buildTree(Scanner input, String delimiter) {
-        Queue<String> lines = new ArrayDeque<>();
-        boolean resume = true;
-        while (resume && input.hasNextLine()) {
+        Pattern delimiterPattern = Pattern.compile(delimiter);
+        Ingest ingest = new Ingest();
+        while (input.hasNextLine()) {
+            long start = Metrics.ENABLED ? System.nanoTime() : 0;
             String line = input.nextLine();
-            String words[] = line.split(delimiter);
-            if (words.length > 1 && words[0].equals(words[1])) {
-                resume = false;
+            List<String> words = Arrays.asList(delimiterPattern.split(line));
+            boolean added = ingest.addLine(line, words);
+            if (Metrics.ENABLED) {
+                Metrics.recordTreeLine(start, words.size());
+            }
+            if (!added) {
+                break;
+            }
+        }
+        return ingest.getRoot();
+    }
+
+    /**
+     * Builds tree from the file in the same format as the scanner input;
+     * File is read by memory mapped windows, lines are split on the literal delimiter bytes
+     * and added to the tree as they are read, so the whole file is never kept in memory;
+     * Lines are separated by \n or \r\n, file must be in UTF-8
+     *
+     * @param file      to read the tree from
+     * @param delimiter literal delimiter between words, not a regular expression
+     * @return built tree with the name taken from first line and every other line acts as a tree branch creator
+     * @throws IOException              if file cannot be read
+     * @throws IllegalArgumentException if delimiter is empty
+     * @throws NoSuchElementException   if any of the bottom line first arguments does not represent
+     *                                  previously created child or sub child node of the main node
+     */
+    public static TreeNode buildTree(Path file, String delimiter) throws IOException {
+        return buildTree(file, delimiter, WINDOW_SIZE);
+    }
+
+    /**
+     * @param windowSize initial size of the mapped part of the file, it is doubled if a line does not fit into it
+     */
+    static TreeNode buildTree(Path file, String delimiter, int windowSize) throws IOException {
+        byte[] delimiterBytes = delimiter.getBytes(StandardCharsets.UTF_8);
+        if (delimiterBytes.length == 0) {
+            throw new IllegalArgumentException("Delimiter must not be empty");
+        }
+        Ingest ingest = new Ingest();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            byte[] line = new byte[256];
+            List<String> words = new ArrayList<>();
+            while (position < size) {
+                int length = (int) Math.min(windowSize, size - position);
+                boolean lastWindow = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int lineStart = 0;
+                for (int i = 0; i <= length; i++) {
+                    //the end of the last window ends the last line
+                    boolean lineEnds = i < length ? window.get(i) == '\n' : lastWindow && lineStart < length;
+                    if (!lineEnds) {
+                        continue;
+                    }
+                    int lineEnd = i > lineStart && window.get(i - 1) == '\r' ? i - 1 : i;
+                    int lineLength = lineEnd - lineStart;
+                    if (line.length < lineLength) {
+                        line = new byte[Math.max(line.length * 2, lineLength)];
+                    }
+                    long start = Metrics.ENABLED ? System.nanoTime() : 0;
+                    window.get(lineStart, line, 0, lineLength);
+                    lineStart = i + 1;
+                    split(line, lineLength, delimiterBytes, words);
+                    String wholeLine = ingest.isStarted() ? null : new String(line, 0, lineLength, StandardCharsets.UTF_8);
+                    boolean added = ingest.addLine(wholeLine, words);
+                    if (Metrics.ENABLED) {
+                        Metrics.recordTreeLine(start, words.size());
+                    }
+                    if (!added) {
+                        return ingest.getRoot();
+                    }
+                }
+                if (lastWindow) {
+                    break;
+                }
+                if (lineStart == 0) { //line is longer than the window
+                    windowSize = (int) Math.min(2L * windowSize, Integer.MAX_VALUE);
+                }
+                position += lineStart;
+            }
+        }
+        return ingest.getRoot();
+    }
+
+    /**
+     * Splits bytes of the line on the literal delimiter into the words, empty words between delimiters are kept
+     */
+    private static void split(byte[] line, int length, byte[] delimiter, List<String> words) {
+        words.clear();
+        int wordStart = 0;
+        int i = 0;
+        while (i <= length - delimiter.length) {
+            if (Arrays.equals(line, i, i + delimiter.length, delimiter, 0, delimiter.length)) {
+                words.add(new String(line, wordStart, i - wordStart, StandardCharsets.UTF_8));
+                i += delimiter.length;
+                wordStart = i;
             } else {
-                lines.add(line);
+                i++;
             }
         }
-        TreeNode mainRoot = new TreeNode(lines.poll());
-        //rest of the tree creation
-        lines.forEach(line -> buildTree(line,delimiter,mainRoot));
-        return mainRoot;
+        words.add(new String(line, wordStart, length - wordStart, StandardCharsets.UTF_8));
     }
 
     /**
@@ -81,4 +187,73 @@ public class TreeNodeCreator {
         return treeNode != null && (foundNode = treeNode.wideSearch(name)).isPresent() ? foundNode.get()
                 : new TreeNode(name);
     }
+
+    /**
+     * Tree under construction: lines are added one by one and nodes are found by their names in the hash map;
+     * Every name is created once, so the map holds exactly the nodes of the tree
+     */
+    private static class Ingest {
+        private final Map<String, TreeNode> nodes = new HashMap<>();
+        /**
+         * Children of the current line, attached to the local root at once
+         */
+        private final List<TreeNode> children = new ArrayList<>();
+        private TreeNode root;
+        private boolean started;
+
+        /**
+         * Adds line to the tree; first line is the name of the root, others add children to the local root
+         *
+         * @param line  whole line, used only for the first line
+         * @param words of the line split on the delimiter, including empty words
+         * @return false if it is the last line: its first word equals to the second, the line itself is not added
+         * @throws NoSuchElementException if local root of the line is not in the tree
+         */
+        private boolean addLine(String line, List<String> words) {
+            int length = words.size();
+            while (length > 0 && words.get(length - 1).isEmpty()) { //trailing empty words are dropped as by String.split
+                length--;
+            }
+            if (length > 1 && words.get(0).equals(words.get(1))) {
+                return false;
+            }
+            if (!started) {
+                started = true;
+                root = new TreeNode(line);
+                nodes.put(line, root);
+                return true;
+            }
+            TreeNode localRoot = null;
+            for (int i = 0; i < length; i++) {
+                String name = words.get(i);
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (localRoot == null) {
+                    localRoot = nodes.get(name);
+                    if (localRoot == null) {
+                        throw new NoSuchElementException("Tree with name: " + name + " is not part of the main root named: " + root.getName());
+                    }
+                } else {
+                    children.add(nodes.computeIfAbsent(name, TreeNode::new));
+                }
+            }
+            if (localRoot != null) {
+                localRoot.appendChildren(children);
+                children.clear();
+            }
+            return true;
+        }
+
+        private boolean isStarted() {
+            return started;
+        }
+
+        /**
+         * @return built tree, tree with null name if there were no lines
+         */
+        private TreeNode getRoot() {
+            return started ? root : new TreeNode((String) null);
+        }
+    }
 }
@@ -0,0 +1,98 @@
+package com.solovev.metrics;
+
+import com.solovev.model.MyLinkedList;
+import com.solovev.model.TreeNode;
+import com.solovev.util.TreeNodeCreator;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+    /**
+     * Metrics are turned on only for this test by the metrics-test execution of surefire
+     */
+    @Test
+    public void countersTest() {
+        assertTrue(Metrics.ENABLED);
+
+        list.get(7);
+        assertEquals(2, Metrics.get(Metrics.Counter.LIST_NODES_STEPPED)); //from the end of the list
+        list.indexOf(4);
+        assertEquals(6, Metrics.get(Metrics.Counter.LIST_NODES_STEPPED));
+        assertEquals(5, Metrics.get(Metrics.Counter.LIST_COMPARISONS));
+        list.retainAll(List.of(1, 2));
+        assertEquals(15, Metrics.get(Metrics.Counter.LIST_COMPARISONS));
+        assertEquals(16, Metrics.get(Metrics.Counter.LIST_NODES_STEPPED));
+        assertEquals(2, list.size());
+
+        TreeNode root = TreeNodeCreator.buildTree(new Scanner("1\n1 1A 1B\n1A 1A1"), " ");
+        assertEquals(3, Metrics.get(Metrics.Counter.TREE_LINES_BUILT));
+        assertTrue(Metrics.get(Metrics.Counter.TREE_LINES_NANOS) > 0);
+        long searches = Metrics.get(Metrics.Counter.TREE_SEARCHES);
+        long visited = Metrics.get(Metrics.Counter.TREE_NODES_VISITED);
+        root.wideSearch(node -> node.getName().equals("1A1"));
+        assertEquals(searches + 1, Metrics.get(Metrics.Counter.TREE_SEARCHES));
+        assertEquals(visited + 4, Metrics.get(Metrics.Counter.TREE_NODES_VISITED));
+
+        Metrics.reset();
+        assertTrue(Metrics.snapshot().values().stream().allMatch(value -> value == 0));
+    }
+
+    @Test
+    public void eventsTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.solovev.ListTraversal");
+            recording.enable("com.solovev.TreeSearch");
+            recording.enable("com.solovev.TreeLine");
+            recording.start();
+            list.get(5);
+            new TreeNode("root").contains(new TreeNode("other"));
+            Metrics.recordTreeLine(System.nanoTime(), 3);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent traversal = find(events, "com.solovev.ListTraversal");
+        assertEquals("getNode", traversal.getString("operation"));
+        assertEquals(4, traversal.getLong("nodesStepped"));
+        assertNotNull(traversal.getStackTrace());
+        RecordedEvent search = find(events, "com.solovev.TreeSearch");
+        assertEquals("contains", search.getString("operation"));
+        assertEquals(1, search.getLong("nodesVisited"));
+        assertFalse(search.getBoolean("found"));
+        assertEquals(3, find(events, "com.solovev.TreeLine").getInt("words"));
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private MyLinkedList<Integer> list;
+
+    /**
+     * Resets counters and list to the numbers from 0 to 9
+     */
+    @BeforeEach
+    public void resetMetrics() {
+        list = new MyLinkedList<>();
+        for (int i = 0; i < 10; i++) {
+            list.add(i);
+        }
+        Metrics.reset();
+    }
+}
@@ -0,0 +1,133 @@
+package com.solovev.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockingMyLinkedListTest {
+    @Test
+    public void boundedTest() throws InterruptedException {
+        assertTrue(queue.offer(1));
+        queue.add(2);
+        assertTrue(queue.offer(3, 1, TimeUnit.MILLISECONDS));
+        assertEquals(0, queue.remainingCapacity());
+        assertFalse(queue.offer(4));
+        assertFalse(queue.offer(4, 10, TimeUnit.MILLISECONDS));
+        assertThrows(IllegalStateException.class, () -> queue.add(4));
+        assertThrows(NullPointerException.class, () -> queue.offer(null));
+        assertEquals("BlockingMyLinkedList{1, 2, 3}", queue.toString());
+
+        assertEquals(1, queue.peek());
+        assertEquals(1, queue.poll());
+        assertEquals(2, queue.take());
+        assertEquals(3, queue.poll(1, TimeUnit.MILLISECONDS));
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new BlockingMyLinkedList<>(0));
+    }
+
+    @Test
+    public void batchTest() {
+        assertEquals(3, queue.offerAll(List.of(1, 2, 3, 4, 5)));
+        assertEquals(3, queue.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, queue.drainTo(drained, 2));
+        assertEquals(List.of(1, 2), drained);
+        assertEquals(0, queue.drainTo(drained, 0));
+
+        assertEquals(2, queue.offerAll(List.of(6, 7, 8)));
+        assertEquals(3, queue.drainTo(drained));
+        assertEquals(List.of(1, 2, 3, 6, 7), drained);
+        assertEquals(0, queue.size());
+        assertEquals(0, queue.offerAll(List.of()));
+    }
+
+    /**
+     * Elements added before the null element stay in the queue and take its capacity
+     */
+    @Test
+    public void offerAllNullTest() {
+        assertThrows(NullPointerException.class, () -> queue.offerAll(Arrays.asList(1, 2, null)));
+        assertEquals(2, queue.size());
+        assertEquals(1, queue.remainingCapacity());
+        assertEquals("BlockingMyLinkedList{1, 2}", queue.toString());
+        assertTrue(queue.offer(3));
+        assertFalse(queue.offer(4));
+        assertEquals(1, queue.poll());
+    }
+
+    /**
+     * Producers put single elements and batches into small queue, consumers take and drain them;
+     * sum of taken elements must be equal to the sum of produced ones
+     */
+    @Test
+    @Timeout(30)
+    public void producersAndConsumersTest() throws InterruptedException {
+        BlockingMyLinkedList<Integer> pipeline = new BlockingMyLinkedList<>(16);
+        int threads = 4;
+        int perProducer = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+        AtomicLong consumedSum = new AtomicLong();
+        AtomicLong consumedCount = new AtomicLong();
+        long total = (long) threads * perProducer;
+
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    for (int i = 0; i < perProducer; i++) {
+                        pipeline.put(i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            boolean batching = t % 2 == 0;
+            executor.execute(() -> {
+                List<Integer> batch = new ArrayList<>();
+                try {
+                    while (consumedCount.get() < total) {
+                        if (batching) {
+                            batch.clear();
+                            pipeline.drainTo(batch, 8);
+                            batch.forEach(consumedSum::addAndGet);
+                            consumedCount.addAndGet(batch.size());
+                        } else {
+                            Integer polled = pipeline.poll(1, TimeUnit.MILLISECONDS);
+                            if (polled != null) {
+                                consumedSum.addAndGet(polled);
+                                consumedCount.incrementAndGet();
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(total, consumedCount.get());
+        assertEquals(threads * ((long) perProducer * (perProducer - 1) / 2), consumedSum.get());
+        assertEquals(0, pipeline.size());
+    }
+
+    private BlockingMyLinkedList<Integer> queue;
+
+    @BeforeEach
+    public void resetQueue() {
+        queue = new BlockingMyLinkedList<>(3);
+    }
+}
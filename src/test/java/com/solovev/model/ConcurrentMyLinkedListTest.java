@@ -0,0 +1,90 @@
+package com.solovev.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentMyLinkedListTest {
+    @Test
+    public void dequeOperationsTest() {
+        ConcurrentMyLinkedList<Integer> list = new ConcurrentMyLinkedList<>();
+        assertNull(list.poll());
+        assertNull(list.peekLast());
+        assertTrue(list.isEmpty());
+
+        list.add(1);
+        list.add(2);
+        list.addFirst(0);
+        assertEquals(3, list.size());
+        assertEquals(0, list.peek());
+        assertEquals(2, list.peekLast());
+        assertEquals("ConcurrentMyLinkedList{0, 1, 2}", list.toString());
+
+        assertTrue(list.removeObj(1));
+        assertFalse(list.removeObj(1));
+        assertFalse(list.contains(null));
+        assertEquals(2, list.pollLast());
+        assertEquals(0, list.poll());
+        assertEquals(0, list.size());
+
+        assertThrows(NullPointerException.class, () -> list.add(null));
+        list.add(5);
+        Iterator<Integer> iterator = list.iterator();
+        iterator.next();
+        assertThrows(UnsupportedOperationException.class, iterator::remove);
+    }
+
+    /**
+     * Producers add from both ends while consumers poll from both ends; every element must be taken exactly once
+     */
+    @Test
+    @Timeout(30)
+    public void producersAndConsumersTest() throws InterruptedException {
+        ConcurrentMyLinkedList<Integer> list = new ConcurrentMyLinkedList<>();
+        int threads = 4;
+        int perProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+        CountDownLatch producersDone = new CountDownLatch(threads);
+        ConcurrentHashMap<Integer, Boolean> taken = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+
+        for (int t = 0; t < threads; t++) {
+            int producer = t;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    int elem = producer * perProducer + i;
+                    if (i % 2 == 0) {
+                        list.add(elem);
+                    } else {
+                        list.addFirst(elem);
+                    }
+                }
+                producersDone.countDown();
+            });
+            executor.execute(() -> {
+                boolean fromHead = producer % 2 == 0;
+                while (producersDone.getCount() > 0 || !list.isEmpty()) {
+                    Integer polled = fromHead ? list.poll() : list.pollLast();
+                    if (polled != null && taken.put(polled, true) != null) {
+                        duplicates.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(0, duplicates.get());
+        assertEquals(threads * perProducer, taken.size());
+        assertEquals(0, list.size());
+    }
+}
@@ -0,0 +1,176 @@
+package com.solovev.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentTreeTest {
+    @Test
+    public void operationsTest() {
+        ConcurrentTree tree = new ConcurrentTree("1");
+        assertTrue(tree.appendChild("1", "1A"));
+        assertTrue(tree.appendChild("1", "1B"));
+        assertTrue(tree.appendChild("1A", "1A1"));
+        assertFalse(tree.appendChild("missing", "child"));
+        assertEquals(4, tree.size());
+        assertEquals(List.of("1A1", "1A", "1"), tree.pathToRoot("1A1"));
+        assertEquals(List.of(), tree.pathToRoot("missing"));
+
+        TreeSnapshot before = tree.snapshot();
+        assertSame(before, tree.snapshot());
+        assertTrue(tree.setParent("1A", "1B"));
+        assertFalse(tree.setParent("1B", "1A1")); //parent is in the subtree
+        assertFalse(tree.setParent("1", "1B"));
+        assertEquals(List.of("1A1", "1A", "1B", "1"), tree.pathToRoot("1A1"));
+        assertEquals("1\n1 1B\n1B 1A\n1A 1A1", tree.toString());
+        assertEquals("1\n1 1A 1B\n1A 1A1", before.toString()); //snapshot is not changed
+
+        long version = tree.version();
+        tree.update(root -> {
+            root.appendChild(new TreeNode("1C"));
+            root.wideSearch("1C").orElseThrow().appendChild(new TreeNode("1C1"));
+        });
+        assertEquals(version + 1, tree.version());
+        assertTrue(tree.contains("1C1"));
+        assertEquals(6, tree.snapshot().size());
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentTree(new TreeNode("child", new TreeNode())));
+    }
+
+    /**
+     * Snapshot after the change shares the unchanged subtrees with the previous one
+     */
+    @Test
+    public void sharedSnapshotsTest() {
+        ConcurrentTree tree = new ConcurrentTree("1");
+        tree.update(root -> {
+            TreeNode secondA = new TreeNode("1A", root);
+            new TreeNode("1A1", secondA);
+            new TreeNode("1B", root);
+        });
+        TreeSnapshot before = tree.snapshot();
+        assertTrue(tree.appendChild("1B", "1B1"));
+        TreeSnapshot after = tree.snapshot();
+        assertNotSame(before, after);
+        assertSame(before.getChildren().get(0), after.getChildren().get(0));
+        assertNotSame(before.getChildren().get(1), after.getChildren().get(1));
+
+        //moved subtree is not copied
+        assertTrue(tree.setParent("1A", "1B1"));
+        TreeSnapshot moved = tree.snapshot().wideSearch("1A").orElseThrow();
+        assertSame(before.getChildren().get(0), moved);
+        assertEquals("1\n1 1B\n1B 1B1\n1B1 1A\n1A 1A1", tree.toString());
+    }
+
+    /**
+     * Names published with the snapshots follow removals, renames, moves and attached foreign subtrees;
+     * "Aa" and "BB" have the same hash code
+     */
+    @Test
+    public void containsTest() {
+        TreeNode foreign = new TreeNode("foreign");
+        new TreeNode("foreign1", foreign);
+        foreign.snapshot(); //foreign subtree keeps its snapshot, so the tree shares it instead of copying
+        ConcurrentTree tree = new ConcurrentTree(new TreeNode("root"));
+        assertTrue(tree.contains("root"));
+        assertFalse(tree.contains(null));
+        assertTrue(tree.appendChild("root", "Aa"));
+        assertTrue(tree.appendChild("root", "BB"));
+        assertTrue(tree.appendChild("Aa", "BB"));
+        assertTrue(tree.appendChild("BB", null));
+        assertTrue(tree.contains("Aa"));
+        assertTrue(tree.contains("BB"));
+        assertTrue(tree.contains(null));
+        assertFalse(tree.contains("C#")); //the same hash code as "Aa" too
+
+        tree.update(root -> {
+            root.wideSearch("Aa").orElseThrow().setParent(null); //one of two BB goes with it
+            root.wideSearch("BB").orElseThrow().setName("C#");
+            foreign.setParent(root);
+        });
+        assertFalse(tree.contains("Aa"));
+        assertFalse(tree.contains("BB"));
+        assertTrue(tree.contains("C#"));
+        assertTrue(tree.contains(null));
+        assertTrue(tree.contains("foreign1"));
+
+        assertTrue(tree.setParent("foreign", "C#"));
+        assertTrue(tree.contains("foreign1"));
+        tree.update(root -> {
+            for (int i = 0; i < 1000; i++) {
+                new TreeNode("n" + i, root);
+            }
+        });
+        tree.update(root -> root.wideSearch("C#").orElseThrow().setParent(null));
+        for (String name : new String[]{"C#", "foreign", "foreign1", null}) {
+            assertFalse(tree.contains(name));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(tree.contains("n" + i));
+        }
+        assertFalse(tree.contains("n1000"));
+        assertEquals(1001, tree.size());
+    }
+
+    /**
+     * Writer appends chains of nodes in batches and moves them, readers must always see whole batches
+     */
+    @Test
+    @Timeout(30)
+    public void readersDuringWritesTest() throws Exception {
+        ConcurrentTree tree = new ConcurrentTree("root");
+        int batches = 2_000;
+        int batchSize = 5;
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Future<?> writer = executor.submit(() -> {
+            try {
+                for (int batch = 0; batch < batches; batch++) {
+                    String prefix = "b" + batch + "-";
+                    tree.update(root -> {
+                        TreeNode parent = root;
+                        for (int i = 0; i < batchSize; i++) {
+                            TreeNode child = new TreeNode(prefix + i);
+                            parent.appendChild(child);
+                            parent = child;
+                        }
+                    });
+                    if (batch > 0) {
+                        tree.setParent(prefix + 0, "b" + (batch - 1) + "-0");
+                    }
+                }
+            } finally {
+                writing.set(false);
+            }
+        });
+        Runnable reader = () -> {
+            while (writing.get()) {
+                TreeSnapshot snapshot = tree.snapshot();
+                assertEquals(0, (snapshot.size() - 1) % batchSize, "Torn batch in snapshot of size " + snapshot.size());
+                int count = 0;
+                for (TreeSnapshot ignored : snapshot) {
+                    count++;
+                }
+                assertEquals(snapshot.size(), count);
+            }
+        };
+        Future<?> firstReader = executor.submit(reader);
+        Future<?> secondReader = executor.submit(reader);
+        writer.get();
+        firstReader.get();
+        secondReader.get();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(batches * batchSize + 1, tree.size());
+        //last batch, first nodes of all previous batches and the root
+        assertEquals(batchSize + batches, tree.pathToRoot("b" + (batches - 1) + "-" + (batchSize - 1)).size());
+    }
+}
@@ -0,0 +1,118 @@
+package com.solovev.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrozenTreeTest {
+    @Test
+    public void structureTest() {
+        assertEquals(9, frozen.size());
+        assertEquals(8, frozen.nameCount());
+        assertEquals(tree.toString(), frozen.toString());
+        StringBuilder written = new StringBuilder();
+        assertDoesNotThrow(() -> frozen.writeTo(written, ";"));
+        StringBuilder expected = new StringBuilder();
+        assertDoesNotThrow(() -> tree.writeTo(expected, ";"));
+        assertEquals(expected.toString(), written.toString());
+
+        assertEquals("1", frozen.getName(0));
+        assertEquals(FrozenTree.NO_NODE, frozen.getParent(0));
+        int secondA = frozen.getFirstChild(0);
+        assertEquals("1A", frozen.getName(secondA));
+        assertEquals("1B", frozen.getName(frozen.getNextSibling(secondA)));
+        assertEquals(0, frozen.getParent(secondA));
+        int thirdA3 = frozen.wideSearch("1A3");
+        assertEquals(FrozenTree.NO_NODE, frozen.getNextSibling(thirdA3));
+        assertEquals(FrozenTree.NO_NODE, frozen.getFirstChild(thirdA3));
+        assertThrows(IndexOutOfBoundsException.class, () -> frozen.getName(9));
+        assertThrows(IndexOutOfBoundsException.class, () -> frozen.getParent(-1));
+
+        //frozen tree does not see changes of the tree
+        tree.appendChild(new TreeNode("new"));
+        assertEquals(FrozenTree.NO_NODE, frozen.wideSearch("new"));
+    }
+
+    @Test
+    public void searchTest() {
+        //1A1 is both the child of 1A and of 1C, the first in the wide search order is the child of 1A
+        int found = frozen.wideSearch("1A1");
+        assertEquals("1A", frozen.getName(frozen.getParent(found)));
+        assertEquals(found, frozen.getFirstChild(frozen.getFirstChild(0)));
+        assertEquals(found, frozen.wideSearch(name -> name.endsWith("A1")));
+        assertEquals(0, frozen.wideSearch(name -> true));
+        assertEquals(FrozenTree.NO_NODE, frozen.wideSearch("0"));
+        assertEquals(FrozenTree.NO_NODE, frozen.wideSearch(name -> name.isEmpty()));
+        assertEquals(FrozenTree.NO_NODE, frozen.wideSearch((String) null));
+
+        TreeNode single = new TreeNode();
+        assertEquals(0, single.freeze().wideSearch((String) null));
+        assertEquals("null", single.freeze().toString());
+    }
+
+    /**
+     * Name table grows several times, every name is repeated twice
+     */
+    @Test
+    public void manyNamesTest() {
+        TreeNode root = new TreeNode("root");
+        for (int i = 0; i < 1000; i++) {
+            new TreeNode("n" + i, new TreeNode("n" + (999 - i), root));
+        }
+        FrozenTree wide = root.freeze();
+        assertEquals(2001, wide.size());
+        assertEquals(1001, wide.nameCount());
+        for (int i = 0; i < 1000; i++) {
+            int found = wide.wideSearch("n" + i);
+            assertEquals(1000 - i, found);
+            assertEquals("n" + i, wide.getName(found));
+        }
+        assertEquals(FrozenTree.NO_NODE, wide.wideSearch("n1000"));
+        assertEquals(1000 - 509, wide.wideSearch(name -> name.startsWith("n50"))); //n509 goes first
+    }
+
+    @Test
+    public void iteratorTest() {
+        List<String> names = new ArrayList<>();
+        PrimitiveIterator.OfInt iterator = frozen.iterator();
+        while (iterator.hasNext()) {
+            names.add(frozen.getName(iterator.nextInt()));
+        }
+        List<String> expected = new ArrayList<>();
+        tree.forEach(node -> expected.add(node.getName()));
+        assertEquals(expected, names);
+
+        TreeNode copy = frozen.toTreeNode();
+        assertEquals(tree.toString(), copy.toString());
+        assertNotSame(tree, copy);
+    }
+
+    private TreeNode tree;
+    private FrozenTree frozen;
+
+    /**
+     * Resets tree to:
+     * "1
+     * 1 1A 1B 1C
+     * 1A 1A1 1A2 1A3
+     * 1C 1A1 1C2"
+     */
+    @BeforeEach
+    public void resetTree() {
+        tree = new TreeNode("1");
+        TreeNode secondA = new TreeNode("1A", tree);
+        new TreeNode("1B", tree);
+        TreeNode secondC = new TreeNode("1C", tree);
+        new TreeNode("1A1", secondA);
+        new TreeNode("1A2", secondA);
+        new TreeNode("1A3", secondA);
+        new TreeNode("1A1", secondC);
+        new TreeNode("1C2", secondC);
+        frozen = tree.freeze();
+    }
+}
@@ -0,0 +1,113 @@
+package com.solovev.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyIndexedListTest {
+    @Test
+    public void addAndRemoveTest() {
+        list.add(5, 100);
+        list.addFirst(-1);
+        list.addAll(3, List.of(200, 300));
+        assertEquals("MyIndexedList{-1, 0, 1, 200, 300, 2, 3, 4, 100, 5, 6, 7, 8, 9}", list.toString());
+
+        assertEquals(200, list.remove(3));
+        assertEquals(-1, list.poll());
+        assertEquals(9, list.pollLast());
+        assertEquals(0, list.peek());
+        assertEquals(8, list.peekLast());
+        assertEquals(11, list.size());
+        list.addAll(List.of());
+        assertEquals(11, list.size());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(11));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(12, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.addAll(-1, List.of(1)));
+    }
+
+    @Test
+    public void emptyListTest() {
+        MyIndexedList<String> empty = new MyIndexedList<>();
+        assertNull(empty.poll());
+        assertNull(empty.pollLast());
+        assertNull(empty.peek());
+        assertFalse(empty.iterator().hasNext());
+        assertThrows(IndexOutOfBoundsException.class, () -> empty.remove(0));
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        Iterator<Integer> iterator = list.iterator();
+        assertThrows(IllegalStateException.class, iterator::remove);
+        while (iterator.hasNext()) {
+            if (iterator.next() % 3 != 0) {
+                iterator.remove();
+            }
+        }
+        assertThrows(NoSuchElementException.class, iterator::next);
+        assertEquals("MyIndexedList{0, 3, 6, 9}", list.toString());
+        assertEquals(2, list.indexOf(6));
+        assertTrue(list.removeObj(6));
+        assertEquals(List.of(0, 3, 9), list.stream().toList());
+    }
+
+    /**
+     * Compares random sequence of positional operations with java ArrayList
+     */
+    @Test
+    public void randomOperationsTest() {
+        MyIndexedList<Integer> indexed = new MyIndexedList<>();
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 30_000; i++) {
+            int size = expected.size();
+            switch (random.nextInt(6)) {
+                case 0, 1 -> {
+                    int index = random.nextInt(size + 1);
+                    indexed.add(index, i);
+                    expected.add(index, i);
+                }
+                case 2 -> {
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(expected.remove(index), indexed.remove(index));
+                    }
+                }
+                case 3 -> {
+                    int index = random.nextInt(size + 1);
+                    List<Integer> batch = IntStream.range(0, random.nextInt(10)).map(j -> -j).boxed().toList();
+                    indexed.addAll(index, batch);
+                    expected.addAll(index, batch);
+                }
+                default -> {
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(expected.get(index), indexed.get(index));
+                    }
+                }
+            }
+            assertEquals(expected.size(), indexed.size());
+        }
+        List<Integer> actual = new ArrayList<>();
+        indexed.forEach(actual::add);
+        assertEquals(expected, actual);
+    }
+
+    private MyIndexedList<Integer> list;
+
+    /**
+     * Resets list to the numbers from 0 to 9
+     */
+    @BeforeEach
+    public void resetList() {
+        list = new MyIndexedList<>();
+        for (int i = 0; i < 10; i++) {
+            list.add(i);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.solovev.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyLinkedListTest {
+    @Test
+    public void addAndRemoveTest() {
+        list.add(5, 100);
+        list.addFirst(-1);
+        list.addAll(3, List.of(200, 300));
+        assertEquals("MyLinkedList{-1, 0, 1, 200, 300, 2, 3, 4, 100, 5, 6, 7, 8, 9}", list.toString());
+
+        assertEquals(200, list.remove(3));
+        assertEquals(-1, list.remove(0));
+        assertEquals(9, list.remove(list.size() - 1));
+        assertEquals("MyLinkedList{0, 1, 300, 2, 3, 4, 100, 5, 6, 7, 8}", list.toString());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.remove(11));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(12, 0));
+    }
+
+    @Test
+    public void emptyListTest() {
+        MyLinkedList<Integer> empty = new MyLinkedList<>();
+        assertNull(empty.poll());
+        assertNull(empty.pollLast());
+        assertNull(empty.peek());
+        assertNull(empty.peekLast());
+
+        empty.addFirst(1);
+        assertEquals(1, empty.pollLast());
+        assertEquals(0, empty.size());
+        empty.add(2);
+        assertEquals(2, empty.peek());
+        assertEquals(2, empty.poll());
+        assertNull(empty.peekLast());
+    }
+
+    @Test
+    public void getNodeTest() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, list.getNode(i).getData());
+        }
+        for (int i = 9; i >= 0; i--) {
+            assertEquals(i, list.get(i));
+        }
+        assertEquals(0, list.peek());
+        assertEquals(9, list.peekLast());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.getNode(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.getNode(10));
+    }
+
+    /**
+     * Mixes positional reads with inserts and removals, so remembered nodes have to follow index shifts
+     */
+    @Test
+    public void fingersFollowModificationsTest() {
+        MyLinkedList<Integer> myList = new MyLinkedList<>();
+        List<Integer> expected = new LinkedList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            int size = expected.size();
+            switch (random.nextInt(6)) {
+                case 0 -> {
+                    int index = random.nextInt(size + 1);
+                    myList.add(index, i);
+                    expected.add(index, i);
+                }
+                case 1 -> {
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(expected.remove(index), myList.remove(index));
+                    }
+                }
+                case 2 -> assertEquals(expected.isEmpty() ? null : expected.remove(0), myList.poll());
+                case 3 -> {
+                    myList.addFirst(i);
+                    expected.add(0, i);
+                }
+                default -> {
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(expected.get(index), myList.get(index));
+                    }
+                }
+            }
+        }
+        List<Integer> actual = new ArrayList<>();
+        myList.forEach(actual::add);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void listIteratorTest() {
+        ListIterator<Integer> iterator = list.listIterator(5);
+        assertThrows(IllegalStateException.class, iterator::remove);
+        assertEquals(4, iterator.previous());
+        iterator.remove(); //removes 4
+        assertEquals(5, iterator.next());
+        iterator.set(50);
+        iterator.add(51);
+        assertEquals(6, iterator.nextIndex());
+        assertEquals(51, iterator.previous());
+        assertEquals(50, iterator.previous());
+        iterator.remove(); //removes 50
+        assertEquals(4, iterator.nextIndex());
+        assertEquals(51, iterator.next());
+
+        while (iterator.hasNext()) {
+            iterator.next();
+        }
+        assertThrows(NoSuchElementException.class, iterator::next);
+        iterator.add(10);
+        assertEquals(10, list.peekLast());
+        assertEquals("MyLinkedList{0, 1, 2, 3, 51, 6, 7, 8, 9, 10}", list.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.listIterator(11));
+    }
+
+    @Test
+    public void removeObjTest() {
+        list.add(null);
+        list.add(3);
+        assertTrue(list.removeObj(3));
+        assertTrue(list.removeObj(null));
+        assertFalse(list.removeObj(100));
+        assertEquals(9, list.indexOf(3));
+        assertEquals(-1, list.indexOf(null));
+    }
+
+    @Test
+    public void removeAllTest() {
+        list.addAll(List.of(1, 1, 2));
+        list.removeAll(List.of(1, 1, 9, 100));
+        assertEquals("MyLinkedList{0, 2, 3, 4, 5, 6, 7, 8, 1, 2}", list.toString());
+
+        //hash based removal keeps the same semantic
+        List<Integer> many = new ArrayList<>(IntStream.range(100, 130).boxed().toList());
+        many.add(2);
+        many.add(2);
+        many.add(8);
+        list.removeAll(many);
+        assertEquals("MyLinkedList{0, 3, 4, 5, 6, 7, 1}", list.toString());
+    }
+
+    @Test
+    public void retainAllTest() {
+        list.addAll(List.of(1, 1, 2));
+        list.retainAll(List.of(1, 2, 100));
+        assertEquals("MyLinkedList{1, 2, 1, 1, 2}", list.toString());
+
+        list.retainAll(() -> IntStream.range(2, 100).boxed().iterator());
+        assertEquals("MyLinkedList{2, 2}", list.toString());
+
+        list.retainAll(List.of());
+        assertEquals(0, list.size());
+    }
+
+    @Test
+    public void containsAllTest() {
+        assertTrue(list.containsAll(List.of()));
+        assertTrue(list.containsAll(List.of(9, 0, 0, 5)));
+        assertFalse(list.containsAll(List.of(9, 10)));
+        assertTrue(list.containsAll(IntStream.range(0, 10).boxed().toList()));
+        assertFalse(list.containsAll(IntStream.range(0, 30).boxed().toList()));
+    }
+
+    @Test
+    public void removeIfTest() {
+        assertTrue(list.removeIf(i -> i % 3 == 0));
+        assertFalse(list.removeIf(i -> i > 100));
+        assertEquals("MyLinkedList{1, 2, 4, 5, 7, 8}", list.toString());
+        assertEquals(8, list.peekLast());
+    }
+
+    @Test
+    public void streamTest() {
+        assertEquals(45, list.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(List.of(0, 2, 4, 6, 8), list.stream().filter(i -> i % 2 == 0).toList());
+
+        MyLinkedList<Integer> big = new MyLinkedList<>();
+        IntStream.range(0, 100_000).forEach(big::add);
+        assertEquals(4_999_950_000L, big.parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(IntStream.range(0, 100_000).boxed().toList(), big.parallelStream().toList());
+    }
+
+    @Test
+    public void spliteratorTest() {
+        MyLinkedList<Integer> big = new MyLinkedList<>();
+        IntStream.range(0, 5_000).forEach(big::add);
+        Spliterator<Integer> suffix = big.spliterator();
+        assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+
+        Spliterator<Integer> prefix = suffix.trySplit();
+        assertEquals(2_500, prefix.estimateSize());
+        assertEquals(2_500, suffix.estimateSize());
+        suffix.tryAdvance(i -> assertEquals(2_500, i));
+        prefix.tryAdvance(i -> assertEquals(0, i));
+        //small lists are not split
+        assertNull(list.spliterator().trySplit());
+    }
+
+    @Test
+    public void nodePoolTest() {
+        MyLinkedList<Integer> pooled = new MyLinkedList<>(3);
+        for (int i = 0; i < 5; i++) {
+            pooled.add(i);
+        }
+        assertEquals(5, pooled.getPoolMisses());
+        assertEquals(0, pooled.poll());
+        assertEquals(4, pooled.pollLast());
+        assertEquals(2, pooled.remove(1));
+        assertTrue(pooled.removeObj(3));
+        //pool is bounded
+        assertEquals(3, pooled.getPooledNodesCount());
+
+        for (int i = 10; i < 15; i++) {
+            pooled.add(i);
+        }
+        assertEquals(3, pooled.getPoolHits());
+        assertEquals(7, pooled.getPoolMisses());
+        assertEquals(0, pooled.getPooledNodesCount());
+        assertEquals("MyLinkedList{1, 10, 11, 12, 13, 14}", pooled.toString());
+
+        //steady queue usage takes nodes only from the pool
+        for (int i = 0; i < 1000; i++) {
+            pooled.add(pooled.poll());
+        }
+        assertEquals(7, pooled.getPoolMisses());
+        assertEquals(1003, pooled.getPoolHits());
+        assertEquals("MyLinkedList{13, 14, 1, 10, 11, 12}", pooled.toString());
+
+        assertEquals(0, list.getPoolMisses());
+        assertThrows(IllegalArgumentException.class, () -> new MyLinkedList<>(-1));
+    }
+
+    @Test
+    public void writeToTest() throws IOException {
+        StringBuilder out = new StringBuilder();
+        list.writeTo(out);
+        assertEquals(list.toString(), out.toString());
+        assertEquals("MyLinkedList{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}", out.toString());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MyLinkedList<String> strings = new MyLinkedList<>();
+        strings.add("один");
+        strings.add(null);
+        strings.writeTo(Channels.newChannel(bytes));
+        assertEquals("MyLinkedList{один, null}", bytes.toString(StandardCharsets.UTF_8));
+        assertEquals("MyLinkedList{}", new MyLinkedList<>().toString());
+    }
+
+    private MyLinkedList<Integer> list;
+
+    /**
+     * Resets list to the numbers from 0 to 9
+     */
+    @BeforeEach
+    public void resetList() {
+        list = new MyLinkedList<>();
+        for (int i = 0; i < 10; i++) {
+            list.add(i);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.solovev.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyOffHeapLinkedListTest {
+    @Test
+    public void addAndRemoveTest() {
+        list.add(5, 100);
+        list.addFirst(-1);
+        list.addAll(3, List.of(200, 300));
+        assertEquals("MyOffHeapLinkedList{-1, 0, 1, 200, 300, 2, 3, 4, 100, 5, 6, 7, 8, 9}", list.toString());
+
+        assertEquals(200, list.remove(3));
+        assertEquals(-1, list.poll());
+        assertEquals(9, list.pollLast());
+        assertEquals(0, list.peek());
+        assertEquals(8, list.peekLast());
+        assertTrue(list.removeObj(100));
+        assertEquals(2, list.indexOf(300));
+        assertEquals(4, list.get(5));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(10));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(11, 0));
+    }
+
+    @Test
+    public void segmentsGrowthTest() {
+        //4 records per segment, 10 elements are in 3 segments
+        assertEquals(3L * 4 * (2 * Integer.BYTES + Integer.BYTES), list.allocatedBytes());
+        list.poll();
+        list.poll();
+        list.add(10);
+        list.addFirst(-10);
+        //released records are reused
+        assertEquals(3L * 4 * (2 * Integer.BYTES + Integer.BYTES), list.allocatedBytes());
+        list.addAll(List.of(11, 12));
+        assertEquals(3L * 4 * (2 * Integer.BYTES + Integer.BYTES), list.allocatedBytes());
+        list.add(13);
+        assertEquals(4L * 4 * (2 * Integer.BYTES + Integer.BYTES), list.allocatedBytes());
+        assertEquals("MyOffHeapLinkedList{-10, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13}", list.toString());
+    }
+
+    /**
+     * Element which the codec failed to write does not take the record
+     */
+    @Test
+    public void failedWriteTest() {
+        //2 records are free in the last segment
+        for (int i = 0; i < 5; i++) {
+            assertThrows(NullPointerException.class, () -> list.add(null));
+        }
+        list.add(10);
+        list.add(11);
+        assertEquals(3L * 4 * (2 * Integer.BYTES + Integer.BYTES), list.allocatedBytes());
+        list.poll();
+        assertThrows(NullPointerException.class, () -> list.addFirst(null));
+        list.addFirst(-1);
+        assertEquals(3L * 4 * (2 * Integer.BYTES + Integer.BYTES), list.allocatedBytes());
+        assertEquals("MyOffHeapLinkedList{-1, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11}", list.toString());
+    }
+
+    @Test
+    public void emptyAndClosedTest() {
+        try (MyOffHeapLinkedList<Long> longs = new MyOffHeapLinkedList<>(ElementCodec.LONG)) {
+            assertNull(longs.poll());
+            assertNull(longs.pollLast());
+            assertNull(longs.peek());
+            longs.addFirst(Long.MIN_VALUE);
+            assertEquals(Long.MIN_VALUE, longs.pollLast());
+        }
+        Iterator<Integer> iterator = list.iterator();
+        list.close();
+        list.close(); //second closing does nothing
+        assertThrows(IllegalStateException.class, () -> list.add(1));
+        assertThrows(IllegalStateException.class, () -> list.iterator());
+        assertThrows(IllegalStateException.class, () -> list.allocatedBytes());
+        assertNull(list.peek()); //closed list is empty
+        assertThrows(IllegalStateException.class, iterator::next); //freed memory is never read
+        assertThrows(IllegalArgumentException.class, () -> new MyOffHeapLinkedList<>(ElementCodec.INTEGER, 0));
+    }
+
+    @Test
+    public void customCodecTest() {
+        //fixed size ascii strings
+        ElementCodec<String> codec = new ElementCodec<>() {
+            @Override
+            public int size() {
+                return 8;
+            }
+
+            @Override
+            public void write(ByteBuffer buffer, int offset, String elem) {
+                byte[] bytes = Arrays.copyOf(elem.getBytes(StandardCharsets.US_ASCII), size());
+                buffer.put(offset, bytes);
+            }
+
+            @Override
+            public String read(ByteBuffer buffer, int offset) {
+                byte[] bytes = new byte[size()];
+                buffer.get(offset, bytes);
+                return new String(bytes, StandardCharsets.US_ASCII).trim();
+            }
+        };
+        try (MyOffHeapLinkedList<String> strings = new MyOffHeapLinkedList<>(codec, 2)) {
+            strings.addAll(List.of("a", "bb", "ccc"));
+            strings.addFirst("z");
+            assertEquals("MyOffHeapLinkedList{z, a, bb, ccc}", strings.toString());
+            assertTrue(strings.contains("bb"));
+        }
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        Iterator<Integer> iterator = list.iterator();
+        assertThrows(IllegalStateException.class, iterator::remove);
+        while (iterator.hasNext()) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertThrows(NoSuchElementException.class, iterator::next);
+        assertEquals("MyOffHeapLinkedList{1, 3, 5, 7, 9}", list.toString());
+    }
+
+    private MyOffHeapLinkedList<Integer> list;
+
+    /**
+     * Resets list to the numbers from 0 to 9 stored in segments of 4 records
+     */
+    @BeforeEach
+    public void resetList() {
+        list = new MyOffHeapLinkedList<>(ElementCodec.INTEGER, 4);
+        for (int i = 0; i < 10; i++) {
+            list.add(i);
+        }
+    }
+
+    @AfterEach
+    public void closeList() {
+        list.close();
+    }
+}
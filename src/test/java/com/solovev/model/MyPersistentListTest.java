@@ -0,0 +1,128 @@
+package com.solovev.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyPersistentListTest {
+    @Test
+    public void versionsTest() {
+        MyPersistentList<Integer> changed = list.add(5, 100).addFirst(-1).add(10).set(1, 50);
+        assertEquals("MyPersistentList{-1, 50, 1, 2, 3, 4, 100, 5, 6, 7, 8, 9, 10}", changed.toString());
+        assertEquals("MyPersistentList{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}", list.toString()); //old version is not changed
+
+        MyPersistentList<Integer> polled = changed.poll().pollLast().remove(5).removeObj(7).removeObj(42);
+        assertEquals("MyPersistentList{50, 1, 2, 3, 4, 5, 6, 8, 9}", polled.toString());
+        assertEquals(13, changed.size());
+        assertEquals(-1, changed.peek());
+        assertEquals(10, changed.peekLast());
+        assertEquals(6, changed.indexOf(100));
+        assertFalse(polled.contains(100));
+        assertEquals("MyPersistentList{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 11, 12}", list.addAll(List.of(11, 12)).toString());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(10));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(11, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.set(-1, 0));
+        assertThrows(UnsupportedOperationException.class, () -> list.iterator().remove());
+    }
+
+    @Test
+    public void emptyListTest() {
+        MyPersistentList<String> empty = MyPersistentList.empty();
+        assertTrue(empty.isEmpty());
+        assertSame(empty, empty.poll());
+        assertSame(empty, empty.pollLast());
+        assertNull(empty.peek());
+        assertNull(empty.peekLast());
+        assertFalse(empty.iterator().hasNext());
+        assertThrows(NoSuchElementException.class, () -> empty.iterator().next());
+        assertThrows(IndexOutOfBoundsException.class, () -> empty.remove(0));
+        assertEquals("MyPersistentList{}", empty.toString());
+        assertTrue(empty.add("one").poll().isEmpty());
+        assertSame(empty, MyPersistentList.from(List.of()));
+    }
+
+    @Test
+    public void builderTest() {
+        MyPersistentList.Builder<Integer> builder = list.toBuilder();
+        builder.add(10).addFirst(-1).set(0, -2).addAll(List.of(11, 12));
+        assertEquals(5, builder.remove(6));
+        assertEquals(-2, builder.get(0));
+        assertEquals(13, builder.size());
+
+        MyPersistentList<Integer> built = builder.build();
+        builder.add(13).set(0, 0);
+        MyPersistentList<Integer> rebuilt = builder.build();
+        assertEquals("MyPersistentList{-2, 0, 1, 2, 3, 4, 6, 7, 8, 9, 10, 11, 12}", built.toString());
+        assertEquals("MyPersistentList{0, 0, 1, 2, 3, 4, 6, 7, 8, 9, 10, 11, 12, 13}", rebuilt.toString());
+        assertEquals("MyPersistentList{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}", list.toString());
+
+        MyPersistentList.Builder<String> empty = MyPersistentList.builder();
+        assertThrows(IndexOutOfBoundsException.class, () -> empty.remove(0));
+        assertEquals("MyPersistentList{a, b}", empty.add("b").addFirst("a").build().toString());
+    }
+
+    /**
+     * Compares random sequence of operations with java ArrayList, every version is kept and checked in the end
+     */
+    @Test
+    public void randomOperationsTest() {
+        MyPersistentList<Integer> current = MyPersistentList.empty();
+        List<Integer> expected = new ArrayList<>();
+        List<MyPersistentList<Integer>> versions = new ArrayList<>();
+        List<List<Integer>> expectedVersions = new ArrayList<>();
+        Random random = new Random(17);
+        for (int i = 0; i < 20_000; i++) {
+            int size = expected.size();
+            switch (random.nextInt(6)) {
+                case 0, 1 -> {
+                    int index = random.nextInt(size + 1);
+                    current = current.add(index, i);
+                    expected.add(index, i);
+                }
+                case 2 -> {
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        expected.remove(index);
+                        current = current.remove(index);
+                    }
+                }
+                case 3 -> {
+                    List<Integer> batch = IntStream.range(0, random.nextInt(10)).map(j -> -j).boxed().toList();
+                    current = current.addAll(batch);
+                    expected.addAll(batch);
+                }
+                default -> {
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(expected.get(index), current.get(index));
+                    }
+                }
+            }
+            assertEquals(expected.size(), current.size());
+            if (i % 1000 == 0) {
+                versions.add(current);
+                expectedVersions.add(new ArrayList<>(expected));
+            }
+        }
+        for (int i = 0; i < versions.size(); i++) {
+            List<Integer> actual = new ArrayList<>();
+            versions.get(i).forEach(actual::add);
+            assertEquals(expectedVersions.get(i), actual);
+        }
+    }
+
+    private MyPersistentList<Integer> list;
+
+    /**
+     * Resets list to the numbers from 0 to 9
+     */
+    @BeforeEach
+    public void resetList() {
+        list = MyPersistentList.from(IntStream.range(0, 10).boxed().toList());
+    }
+}
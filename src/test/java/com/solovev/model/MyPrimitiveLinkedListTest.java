@@ -0,0 +1,149 @@
+package com.solovev.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests primitive lists generated from MyPrimitiveLinkedList.java.template
+ */
+public class MyPrimitiveLinkedListTest {
+    @Test
+    public void addAndRemoveTest() {
+        ints.add(5, 100);
+        ints.addFirst(-1);
+        ints.addAll(3, new int[]{200, 300});
+        assertEquals("MyIntLinkedList{-1, 0, 1, 200, 300, 2, 3, 4, 100, 5, 6, 7, 8, 9}", ints.toString());
+
+        assertEquals(200, ints.remove(3));
+        assertEquals(-1, ints.poll());
+        assertEquals(9, ints.pollLast());
+        assertEquals(0, ints.peek());
+        assertEquals(8, ints.peekLast());
+        assertTrue(ints.removeObj(100));
+        assertFalse(ints.removeObj(100));
+        assertEquals(2, ints.indexOf(300));
+        assertArrayEquals(new int[]{0, 1, 300, 2, 3, 4, 5, 6, 7, 8}, ints.toArray());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> ints.get(10));
+        assertThrows(IndexOutOfBoundsException.class, () -> ints.add(11, 0));
+    }
+
+    @Test
+    public void emptyListTest() {
+        MyLongLinkedList longs = new MyLongLinkedList(0);
+        assertTrue(longs.isEmpty());
+        assertThrows(NoSuchElementException.class, longs::poll);
+        assertThrows(NoSuchElementException.class, longs::pollLast);
+        assertThrows(NoSuchElementException.class, longs::peek);
+        assertThrows(NoSuchElementException.class, longs::peekLast);
+        assertThrows(IllegalArgumentException.class, () -> new MyLongLinkedList(-1));
+
+        longs.addFirst(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, longs.pollLast());
+        assertTrue(longs.isEmpty());
+    }
+
+    @Test
+    public void bulkOperationsTest() {
+        ints.addAll(new int[]{1, 1, 2});
+        ints.removeAll(1, 1, 9, 100);
+        assertEquals("MyIntLinkedList{0, 2, 3, 4, 5, 6, 7, 8, 1, 2}", ints.toString());
+
+        assertTrue(ints.containsAll(8, 0, 0, 2));
+        assertFalse(ints.containsAll(8, 9));
+        assertTrue(ints.containsAll());
+
+        ints.retainAll(2, 1, 5);
+        assertEquals("MyIntLinkedList{2, 5, 1, 2}", ints.toString());
+        assertTrue(ints.removeIf(i -> i == 2));
+        assertEquals("MyIntLinkedList{5, 1}", ints.toString());
+    }
+
+    @Test
+    public void iteratorTest() {
+        PrimitiveIterator.OfInt iterator = ints.iterator();
+        assertThrows(IllegalStateException.class, iterator::remove);
+        while (iterator.hasNext()) {
+            if (iterator.nextInt() % 2 == 1) {
+                iterator.remove();
+            }
+        }
+        assertThrows(NoSuchElementException.class, iterator::nextInt);
+        int[] sum = new int[1];
+        ints.forEach((int i) -> sum[0] += i);
+        assertEquals(20, sum[0]);
+
+        //released slots are reused
+        ints.add(11);
+        ints.addFirst(-11);
+        assertEquals("MyIntLinkedList{-11, 0, 2, 4, 6, 8, 11}", ints.toString());
+    }
+
+    @Test
+    public void doubleEqualityTest() {
+        MyDoubleLinkedList doubles = new MyDoubleLinkedList();
+        doubles.addAll(new double[]{0.0, Double.NaN, -0.0});
+        //the same as equals of boxed Double
+        assertEquals(1, doubles.indexOf(Double.NaN));
+        assertEquals(2, doubles.indexOf(-0.0));
+        assertEquals(0, doubles.indexOf(0.0));
+        doubles.removeAll(-0.0, Double.NaN);
+        assertEquals("MyDoubleLinkedList{0.0}", doubles.toString());
+    }
+
+    /**
+     * Compares random sequence of operations with java LinkedList, so released slots are reused many times
+     */
+    @Test
+    public void randomOperationsTest() {
+        MyIntLinkedList primitive = new MyIntLinkedList(2);
+        List<Integer> expected = new LinkedList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            int size = expected.size();
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    int index = random.nextInt(size + 1);
+                    primitive.add(index, i);
+                    expected.add(index, i);
+                }
+                case 1 -> {
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(expected.remove(index), primitive.remove(index));
+                    }
+                }
+                case 2 -> {
+                    if (size > 0) {
+                        assertEquals(expected.remove(0), primitive.poll());
+                    }
+                }
+                default -> {
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(expected.get(index), primitive.get(index));
+                    }
+                }
+            }
+            assertEquals(expected.size(), primitive.size());
+        }
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), primitive.toArray());
+    }
+
+    private MyIntLinkedList ints;
+
+    /**
+     * Resets list to the numbers from 0 to 9
+     */
+    @BeforeEach
+    public void resetList() {
+        ints = new MyIntLinkedList();
+        for (int i = 0; i < 10; i++) {
+            ints.add(i);
+        }
+    }
+}
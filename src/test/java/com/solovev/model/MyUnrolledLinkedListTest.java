@@ -0,0 +1,130 @@
+package com.solovev.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyUnrolledLinkedListTest {
+    @Test
+    public void addAndGetTest() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, list.get(i));
+        }
+        list.add(5, 100);
+        list.addFirst(-1);
+        list.add(12, 200);
+
+        assertEquals(13, list.size());
+        assertEquals(-1, list.get(0));
+        assertEquals(100, list.get(6));
+        assertEquals(200, list.get(12));
+        assertEquals("MyUnrolledLinkedList{-1, 0, 1, 2, 3, 4, 100, 5, 6, 7, 8, 9, 200}", list.toString());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(13));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(-1, 0));
+    }
+
+    @Test
+    public void pollTest() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, list.poll());
+            assertEquals(9 - i, list.pollLast());
+        }
+        assertEquals(0, list.size());
+        assertNull(list.poll());
+        assertNull(list.pollLast());
+        assertNull(list.peek());
+        assertNull(list.peekLast());
+
+        list.addFirst(1);
+        assertEquals(1, list.peek());
+        assertEquals(1, list.peekLast());
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        Iterator<Integer> iterator = list.iterator();
+        assertThrows(IllegalStateException.class, iterator::remove);
+        while (iterator.hasNext()) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals("MyUnrolledLinkedList{1, 3, 5, 7, 9}", list.toString());
+        assertTrue(list.removeObj(5));
+        assertFalse(list.removeObj(5));
+        assertEquals(2, list.indexOf(7));
+    }
+
+    @Test
+    public void illegalCapacityTest() {
+        assertThrows(IllegalArgumentException.class, () -> new MyUnrolledLinkedList<>(3));
+    }
+
+    /**
+     * Compares random sequence of operations with java LinkedList, so chunks are split and merged many times
+     */
+    @Test
+    public void randomOperationsTest() {
+        MyUnrolledLinkedList<Integer> unrolled = new MyUnrolledLinkedList<>(4);
+        List<Integer> expected = new LinkedList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int operation = random.nextInt(7);
+            int size = expected.size();
+            switch (operation) {
+                case 0 -> {
+                    unrolled.add(i);
+                    expected.add(i);
+                }
+                case 1 -> {
+                    unrolled.addFirst(i);
+                    expected.add(0, i);
+                }
+                case 2 -> {
+                    int index = random.nextInt(size + 1);
+                    unrolled.add(index, i);
+                    expected.add(index, i);
+                }
+                case 3 -> {
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(expected.remove(index), unrolled.remove(index));
+                    }
+                }
+                case 4 -> assertEquals(expected.isEmpty() ? null : expected.remove(0), unrolled.poll());
+                case 5 -> assertEquals(expected.isEmpty() ? null : expected.remove(size - 1), unrolled.pollLast());
+                default -> {
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(expected.get(index), unrolled.get(index));
+                    }
+                }
+            }
+            assertEquals(expected.size(), unrolled.size());
+        }
+        List<Integer> actual = new ArrayList<>();
+        unrolled.forEach(actual::add);
+        assertEquals(expected, actual);
+    }
+
+    private MyUnrolledLinkedList<Integer> list;
+
+    /**
+     * Resets list to the numbers from 0 to 9 stored in chunks of 4 elements
+     */
+    @BeforeEach
+    public void resetList() {
+        list = new MyUnrolledLinkedList<>(4);
+        for (int i = 0; i < 10; i++) {
+            list.add(i);
+        }
+    }
+}
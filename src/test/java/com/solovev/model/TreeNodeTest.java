@@ -7,7 +7,15 @@ import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullSource;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -87,6 +95,301 @@ public class TreeNodeTest {
         assertEquals(Optional.of(emptyNode), firstNode.wideSearch((String) null));
     }
 
+    @Test
+    public void nameIndexTest() {
+        assertEquals(Optional.of(thirdA2), firstNode.wideSearch("1A2"));
+
+        TreeNode other = new TreeNode("other");
+        assertTrue(other.appendChild(secondA));
+        assertEquals(Optional.empty(), firstNode.wideSearch("1A2"));
+        assertEquals(Optional.of(thirdA2), other.wideSearch("1A2"));
+        assertEquals(Optional.of(thirdA2), secondA.wideSearch("1A2"));
+        assertEquals(Optional.empty(), thirdA1.wideSearch("1A2"));
+
+        thirdA2.setName("renamed");
+        assertEquals(Optional.empty(), other.wideSearch("1A2"));
+        assertEquals(Optional.of(thirdA2), other.wideSearch("renamed"));
+
+        assertTrue(secondA.setParent(secondC));
+        assertEquals(Optional.of(thirdA2), firstNode.wideSearch("renamed"));
+        assertEquals(Optional.empty(), other.wideSearch("renamed"));
+
+        //the same name in two nodes: the first in the search order is found
+        TreeNode sameName = new TreeNode("renamed", secondB);
+        assertEquals(Optional.of(sameName), firstNode.wideSearch("renamed"));
+        assertEquals(Optional.of(thirdA2), secondC.wideSearch("renamed"));
+
+        assertTrue(secondC.setParent(null));
+        assertEquals(Optional.of(thirdA2), secondC.wideSearch("renamed"));
+        assertEquals(Optional.of(sameName), firstNode.wideSearch("renamed"));
+    }
+
+    @Test
+    public void ancestorQueriesTest() {
+        assertTrue(firstNode.isAncestorOf(thirdA1));
+        assertTrue(secondA.isAncestorOf(thirdA3));
+        assertFalse(secondA.isAncestorOf(secondA));
+        assertFalse(secondA.isAncestorOf(thirdC1));
+        assertFalse(thirdA1.isAncestorOf(firstNode));
+        assertFalse(firstNode.isAncestorOf(emptyNode));
+        assertFalse(firstNode.isAncestorOf(null));
+
+        assertEquals(0, firstNode.depth());
+        assertEquals(2, thirdC2.depth());
+        assertEquals(List.of(thirdC2, secondC, firstNode), thirdC2.pathToRoot());
+
+        assertSame(secondA, thirdA1.lowestCommonAncestor(thirdA3).orElseThrow());
+        assertSame(firstNode, thirdA1.lowestCommonAncestor(thirdC2).orElseThrow());
+        assertSame(secondC, secondC.lowestCommonAncestor(thirdC1).orElseThrow());
+        assertSame(thirdA2, thirdA2.lowestCommonAncestor(thirdA2).orElseThrow());
+        assertEquals(Optional.empty(), thirdA2.lowestCommonAncestor(emptyNode));
+
+        //index is rebuilt after the change of the tree
+        assertTrue(secondC.appendChild(secondA));
+        assertEquals(3, thirdA1.depth());
+        assertTrue(secondC.isAncestorOf(thirdA1));
+        assertSame(secondC, thirdA1.lowestCommonAncestor(thirdC2).orElseThrow());
+        assertFalse(thirdA1.appendChild(firstNode));
+        assertFalse(thirdA1.appendChild(secondC));
+
+        assertTrue(secondC.setParent(null));
+        assertFalse(firstNode.isAncestorOf(thirdA1));
+        assertEquals(2, thirdA1.depth());
+        assertEquals(Optional.empty(), thirdA1.lowestCommonAncestor(secondB));
+    }
+
+    /**
+     * Every append walks up from the new parent only, and queries on the long chain use the index
+     */
+    @Test
+    @Timeout(10)
+    public void deepTreeTest() {
+        int depth = 200_000;
+        TreeNode[] chain = new TreeNode[depth];
+        chain[0] = new TreeNode("0");
+        for (int i = 1; i < depth; i++) {
+            chain[i] = new TreeNode(String.valueOf(i), chain[i - 1]);
+        }
+        TreeNode branch = new TreeNode("branch", chain[depth / 2]);
+
+        assertFalse(chain[depth - 1].appendChild(chain[0]));
+        assertEquals(depth - 1, chain[depth - 1].depth());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(chain[i].isAncestorOf(chain[depth - 1 - i]));
+            assertSame(chain[depth / 2], branch.lowestCommonAncestor(chain[depth - 1 - i]).orElseThrow());
+        }
+        assertEquals(depth / 2 + 2, branch.pathToRoot().size());
+    }
+
+    @Test
+    public void appendChildrenTest() {
+        TreeNode equalC1 = new TreeNode("1C1");
+        assertEquals(2, secondB.appendChildren(Arrays.asList(thirdC1, null, firstNode, equalC1, secondB)));
+        assertEquals(List.of(thirdC1, equalC1), secondB.getChildren());
+        assertEquals(List.of(thirdC2), secondC.getChildren());
+        assertEquals(0, thirdA1.appendChildren(List.of(firstNode, secondA)));
+        assertThrows(UnsupportedOperationException.class, () -> secondB.getChildren().add(thirdA1));
+
+        //equal children are removed by identity
+        assertTrue(equalC1.setParent(null));
+        assertSame(thirdC1, secondB.getChildren().get(0));
+        assertEquals(1, secondB.getChildren().size());
+
+        //order is kept after removal from the middle
+        assertTrue(thirdA2.setParent(secondC));
+        assertEquals(List.of(thirdA1, thirdA3), secondA.getChildren());
+        assertEquals(thirdA3, secondA.getChildren().get(1));
+        assertEquals(List.of("1", "1A", "1B", "1C", "1A1", "1A3", "1C1", "1C2", "1A2"),
+                visitedNames(TraversalOrder.BREADTH_FIRST, Integer.MAX_VALUE, node -> false));
+    }
+
+    /**
+     * Children of the wide node are detached in constant time, so moving all of them is linear
+     */
+    @Test
+    @Timeout(10)
+    public void wideReparentTest() {
+        int width = 200_000;
+        TreeNode wide = new TreeNode("wide");
+        List<TreeNode> children = new ArrayList<>();
+        for (int i = 0; i < width; i++) {
+            children.add(new TreeNode("same"));
+        }
+        assertEquals(width, wide.appendChildren(children));
+        TreeNode other = new TreeNode("other", wide);
+
+        //every second child is moved, so detached children leave gaps between the remaining ones
+        for (int i = 0; i < width; i += 2) {
+            assertTrue(children.get(i).setParent(other));
+        }
+        assertEquals(width / 2 + 1, wide.getChildren().size());
+        assertEquals(width / 2 + 1, wide.parallelReduce(0, node -> node.getParent() == wide ? 1 : 0, Integer::sum));
+        int count = 0;
+        for (TreeNode ignored : wide) {
+            count++;
+        }
+        assertEquals(width + 2, count);
+        //positional access skips the gaps by the counts of the children, so indexing in the loop is not quadratic
+        for (int i = 0; i < width / 2; i++) {
+            assertSame(children.get(2 * i + 1), wide.getChildren().get(i));
+        }
+
+        //children detached from the front leave no gaps
+        while (wide.getChildren().size() > 1) {
+            assertTrue(wide.getChildren().get(0).setParent(other));
+        }
+        assertSame(other, wide.getChildren().get(0));
+        assertEquals(width, other.getChildren().size());
+        assertSame(children.get(1), other.getChildren().get(width / 2));
+    }
+
+    /**
+     * Positional access does not move the children, so iteration started before it does not skip any child
+     */
+    @Test
+    public void positionalReadDuringIterationTest() {
+        TreeNode root = new TreeNode("root");
+        TreeNode a = new TreeNode("a", root);
+        TreeNode detached = new TreeNode("detached", root);
+        TreeNode c = new TreeNode("c", root);
+        TreeNode d = new TreeNode("d", root);
+        TreeNode e = new TreeNode("e", root);
+        assertTrue(detached.setParent(null));
+
+        List<String> names = new ArrayList<>();
+        for (TreeNode node : root) {
+            names.add(node.getName());
+            if (node == c) {
+                assertSame(a, root.getChildren().get(0));
+                assertSame(e, root.getChildren().get(3));
+                assertTrue(root.getChildren().contains(d));
+            }
+        }
+        assertEquals(List.of("root", "a", "c", "d", "e"), names);
+        assertEquals(List.of(a, c, d, e), root.getChildren());
+    }
+
+    /**
+     * Positional access with the gaps between the children is checked against the list of the remaining children
+     */
+    @Test
+    public void positionalReadWithGapsTest() {
+        TreeNode root = new TreeNode("root");
+        List<TreeNode> expected = new ArrayList<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 5_000; i++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                expected.add(new TreeNode(String.valueOf(i), root));
+            } else {
+                assertTrue(expected.remove(random.nextInt(expected.size())).setParent(null));
+            }
+            int index = random.nextInt(expected.size() + 1) - 1;
+            if (index >= 0) {
+                assertSame(expected.get(index), root.getChildren().get(index));
+            }
+        }
+        assertEquals(expected, root.getChildren());
+    }
+
+    @Test
+    public void traverseTest() {
+        assertEquals(List.of("1", "1A", "1B", "1C", "1A1", "1A2", "1A3", "1C1", "1C2"),
+                visitedNames(TraversalOrder.BREADTH_FIRST, Integer.MAX_VALUE, node -> false));
+        assertEquals(List.of("1", "1A", "1A1", "1A2", "1A3", "1B", "1C", "1C1", "1C2"),
+                visitedNames(TraversalOrder.DEPTH_FIRST_PRE_ORDER, Integer.MAX_VALUE, node -> false));
+        assertEquals(List.of("1A1", "1A2", "1A3", "1A", "1B", "1C1", "1C2", "1C", "1"),
+                visitedNames(TraversalOrder.DEPTH_FIRST_POST_ORDER, Integer.MAX_VALUE, node -> false));
+
+        assertEquals(List.of("1", "1A", "1B", "1C"), visitedNames(TraversalOrder.BREADTH_FIRST, 1, node -> false));
+        assertEquals(List.of("1A", "1B", "1C", "1"), visitedNames(TraversalOrder.DEPTH_FIRST_POST_ORDER, 1, node -> false));
+        assertEquals(List.of("1"), visitedNames(TraversalOrder.DEPTH_FIRST_PRE_ORDER, 0, node -> false));
+        assertThrows(IllegalArgumentException.class, () -> visitedNames(TraversalOrder.BREADTH_FIRST, -1, node -> false));
+
+        //children of 1A are skipped
+        assertEquals(List.of("1", "1A", "1B", "1C", "1C1", "1C2"),
+                visitedNames(TraversalOrder.BREADTH_FIRST, Integer.MAX_VALUE, node -> node == secondA));
+        assertEquals(List.of("1", "1A", "1B", "1C", "1C1", "1C2"),
+                visitedNames(TraversalOrder.DEPTH_FIRST_PRE_ORDER, Integer.MAX_VALUE, node -> node == secondA));
+
+        List<Integer> depths = new ArrayList<>();
+        Optional<TreeNode> stopped = firstNode.traverse(TraversalOrder.DEPTH_FIRST_PRE_ORDER, (node, depth) -> {
+            depths.add(depth);
+            return node == thirdA2 ? TreeVisitor.VisitResult.STOP : TreeVisitor.VisitResult.CONTINUE;
+        });
+        assertEquals(Optional.of(thirdA2), stopped);
+        assertEquals(List.of(0, 1, 2, 2), depths);
+        assertEquals(Optional.of(secondB), firstNode.traverse(TraversalOrder.DEPTH_FIRST_POST_ORDER,
+                (node, depth) -> node == secondB ? TreeVisitor.VisitResult.STOP : TreeVisitor.VisitResult.CONTINUE));
+    }
+
+    /**
+     * Searches and iteration of the long chain do not use recursion
+     */
+    @Test
+    @Timeout(10)
+    public void deepTraversalTest() {
+        int depth = 1_000_000;
+        TreeNode top = new TreeNode("0");
+        TreeNode bottom = top;
+        for (int i = 1; i < depth; i++) {
+            bottom = new TreeNode(String.valueOf(i), bottom);
+        }
+        TreeNode last = bottom;
+        assertEquals(Optional.of(last), top.wideSearch(node -> node.getChildren().isEmpty()));
+        assertTrue(top.contains(last));
+        for (TraversalOrder order : TraversalOrder.values()) {
+            int[] visited = new int[1];
+            top.traverse(order, (node, nodeDepth) -> {
+                visited[0]++;
+                return TreeVisitor.VisitResult.CONTINUE;
+            });
+            assertEquals(depth, visited[0]);
+        }
+        int count = 0;
+        for (TreeNode ignored : top) {
+            count++;
+        }
+        assertEquals(depth, count);
+    }
+
+    @Test
+    @Timeout(30)
+    public void parallelOperationsTest() {
+        //random tree, parent of every node is one of the previous nodes
+        int size = 300_000;
+        Random random = new Random(5);
+        List<TreeNode> nodes = new ArrayList<>(List.of(new TreeNode("n0")));
+        for (int i = 1; i < size; i++) {
+            nodes.add(new TreeNode("n" + i, nodes.get(random.nextInt(i))));
+        }
+
+        TreeNode root = nodes.get(0);
+        assertEquals(size, root.parallelReduce(0, node -> 1, Integer::sum));
+        assertEquals(size - 1, root.parallelReduce(0, node -> node.getChildren().size(), Integer::sum));
+        LongAdder visited = new LongAdder();
+        root.parallelForEach(node -> visited.increment());
+        assertEquals(size, visited.sum());
+
+        TreeNode target = nodes.get(size - 7);
+        assertEquals(Optional.of(target), root.parallelSearch(node -> node == target));
+        assertEquals(Optional.empty(), root.parallelSearch(node -> node.getName() == null));
+        assertEquals(Optional.empty(), target.parallelSearch(node -> node == root));
+        assertEquals(1, secondB.parallelReduce(0, node -> 1, Integer::sum));
+    }
+
+    /**
+     * @param skip nodes whose children are not visited
+     * @return names of the nodes visited from the first node
+     */
+    private List<String> visitedNames(TraversalOrder order, int maxDepth, Predicate<TreeNode> skip) {
+        List<String> names = new ArrayList<>();
+        firstNode.traverse(order, maxDepth, (node, depth) -> {
+            names.add(node.getName());
+            return skip.test(node) ? TreeVisitor.VisitResult.SKIP_CHILDREN : TreeVisitor.VisitResult.CONTINUE;
+        });
+        return names;
+    }
+
     @Test
     public void emptyTests() {
         assertEquals("null", emptyNode.toString());
@@ -114,6 +417,61 @@ public class TreeNodeTest {
         assertEquals(secondC,copySecondC);
     }
 
+    @Test
+    public void hashCodeTest() {
+        TreeNode copy = new TreeNode("1C");
+        new TreeNode("1C1", copy);
+        new TreeNode("1C2", copy);
+        assertEquals(secondC.hashCode(), copy.hashCode());
+        assertNotEquals(secondC, copy); //parents differ
+
+        //changes of the subtree change hashes of all its ancestors
+        int firstHash = firstNode.hashCode();
+        int secondHash = secondC.hashCode();
+        thirdC2.setName("changed");
+        assertNotEquals(firstHash, firstNode.hashCode());
+        assertNotEquals(secondHash, secondC.hashCode());
+        thirdC2.setName("1C2");
+        assertEquals(firstHash, firstNode.hashCode());
+        thirdA1.appendChild(thirdC2);
+        assertNotEquals(secondHash, secondC.hashCode());
+        secondC.appendChild(thirdC2);
+        assertEquals(secondHash, secondC.hashCode());
+        assertEquals(firstHash, firstNode.hashCode());
+
+        //equal subtrees are found by hash set
+        Set<TreeNode> roots = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            TreeNode root = new TreeNode("root");
+            new TreeNode("child", root);
+            roots.add(root);
+        }
+        assertEquals(1, roots.size());
+        assertFalse(roots.contains(new TreeNode("root")));
+    }
+
+    /**
+     * Long equal chains are compared without recursion, every node is compared once
+     */
+    @Test
+    @Timeout(10)
+    public void deepEqualsTest() {
+        int depth = 200_000;
+        TreeNode first = new TreeNode("0");
+        TreeNode second = new TreeNode("0");
+        for (int i = 1; i < depth; i++) {
+            first = new TreeNode(String.valueOf(i), first);
+            second = new TreeNode(String.valueOf(i), second);
+        }
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        second.setName("other");
+        assertNotEquals(first, second);
+        second.setName(first.getName());
+        second.getParent().getParent().setName("other");
+        assertNotEquals(first, second);
+    }
+
     @Test
     public void toStringTest() {
         assertEquals(
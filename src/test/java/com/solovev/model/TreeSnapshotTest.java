@@ -0,0 +1,93 @@
+package com.solovev.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TreeSnapshotTest {
+    @Test
+    public void structureTest() {
+        assertEquals(9, snapshot.size());
+        assertEquals(tree.toString(), snapshot.toString());
+        assertEquals("1", snapshot.getName());
+        assertEquals(List.of("1A", "1B", "1C"), snapshot.getChildren().stream().map(TreeSnapshot::getName).toList());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getChildren().remove(0));
+
+        //unchanged snapshot is taken again for free, changed one copies only the path to the changed node
+        assertSame(snapshot, tree.snapshot());
+        secondC.appendChild(new TreeNode("new"));
+        TreeSnapshot changed = tree.snapshot();
+        assertNotSame(snapshot, changed);
+        assertSame(snapshot.getChildren().get(0), changed.getChildren().get(0));
+        assertEquals(9, snapshot.size());
+        assertEquals(10, changed.size());
+        secondA.setName("renamed");
+        assertEquals("renamed", tree.snapshot().getChildren().get(0).getName());
+        assertEquals("1A", changed.getChildren().get(0).getName());
+    }
+
+    @Test
+    public void searchTest() {
+        TreeSnapshot found = snapshot.wideSearch("1A1").orElseThrow();
+        assertEquals(1, found.size());
+        assertSame(found, snapshot.wideSearch(node -> node.getName().endsWith("A1")).orElseThrow());
+        assertEquals(Optional.empty(), snapshot.wideSearch("0"));
+        assertEquals(Optional.empty(), snapshot.wideSearch((String) null));
+        assertTrue(new TreeNode().snapshot().wideSearch((String) null).isPresent());
+
+        //1A1 is both the child of 1A and of 1C, the first in the wide search order is the child of 1A
+        assertEquals(List.of("1A1", "1A", "1"), names(snapshot.pathToRoot(node -> node.getName().equals("1A1"))));
+        assertEquals(List.of("1C2", "1C", "1"), names(snapshot.pathToRoot(node -> node.getName().equals("1C2"))));
+        assertEquals(List.of("1"), names(snapshot.pathToRoot(node -> true)));
+        assertEquals(List.of(), snapshot.pathToRoot(node -> false));
+    }
+
+    @Test
+    public void iteratorTest() {
+        List<String> expected = new ArrayList<>();
+        tree.forEach(node -> expected.add(node.getName()));
+        List<String> actual = new ArrayList<>();
+        snapshot.forEach(node -> actual.add(node.getName()));
+        assertEquals(expected, actual);
+
+        TreeNode copy = snapshot.toTreeNode();
+        assertEquals(tree.toString(), copy.toString());
+        assertNotSame(tree, copy);
+        assertEquals(tree, copy);
+    }
+
+    private static List<String> names(List<TreeSnapshot> nodes) {
+        return nodes.stream().map(TreeSnapshot::getName).toList();
+    }
+
+    private TreeNode tree;
+    private TreeNode secondA;
+    private TreeNode secondC;
+    private TreeSnapshot snapshot;
+
+    /**
+     * Resets tree to:
+     * "1
+     * 1 1A 1B 1C
+     * 1A 1A1 1A2 1A3
+     * 1C 1A1 1C2"
+     */
+    @BeforeEach
+    public void resetTree() {
+        tree = new TreeNode("1");
+        secondA = new TreeNode("1A", tree);
+        new TreeNode("1B", tree);
+        secondC = new TreeNode("1C", tree);
+        new TreeNode("1A1", secondA);
+        new TreeNode("1A2", secondA);
+        new TreeNode("1A3", secondA);
+        new TreeNode("1A1", secondC);
+        new TreeNode("1C2", secondC);
+        snapshot = tree.snapshot();
+    }
+}
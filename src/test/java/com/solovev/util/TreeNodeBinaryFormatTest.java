@@ -0,0 +1,128 @@
+package com.solovev.util;
+
+import com.solovev.model.TreeNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TreeNodeBinaryFormatTest {
+    @Test
+    public void roundTripTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("tree.bin");
+        TreeNodeBinaryFormat.write(tree, file);
+        MappedTree mapped = TreeNodeBinaryFormat.read(file);
+
+        assertEquals(9, mapped.size());
+        assertEquals(8, mapped.nameCount());
+        assertEquals(tree.toString(), mapped.toString());
+        assertEquals(tree.toString(), mapped.materialize().toString());
+        //every copy is new, changed copy does not change the next ones
+        TreeNode copy = mapped.materialize();
+        assertNotSame(copy, mapped.materialize());
+        copy.appendChild(new TreeNode("new"));
+        assertEquals(tree.toString(), mapped.materialize().toString());
+
+        assertEquals("1", mapped.getName(0));
+        assertEquals(MappedTree.NO_NODE, mapped.getParent(0));
+        int secondA = mapped.getFirstChild(0);
+        assertEquals("1A", mapped.getName(secondA));
+        assertEquals("1B", mapped.getName(mapped.getNextSibling(secondA)));
+        assertThrows(IndexOutOfBoundsException.class, () -> mapped.getName(9));
+        assertThrows(IndexOutOfBoundsException.class, () -> mapped.getFirstChild(-1));
+
+        //subtree of the node is written as the whole tree
+        TreeNodeBinaryFormat.write(secondC, file);
+        assertEquals(secondC.toString(), TreeNodeBinaryFormat.read(file).toString());
+    }
+
+    @Test
+    public void searchTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("tree.bin");
+        TreeNodeBinaryFormat.write(tree, file);
+        MappedTree mapped = TreeNodeBinaryFormat.read(file);
+
+        //1A1 is both the child of 1A and of 1C, the first in the wide search order is the child of 1A
+        int found = mapped.wideSearch("1A1");
+        assertEquals("1A", mapped.getName(mapped.getParent(found)));
+        assertEquals(MappedTree.NO_NODE, mapped.wideSearch("0"));
+        assertEquals(MappedTree.NO_NODE, mapped.wideSearch((String) null));
+        assertEquals("1C\n1C 1A1 1C2", mapped.materialize(mapped.wideSearch("1C")).toString());
+        for (String name : new String[]{"1", "1A", "1B", "1C", "1A2", "1A3", "1C2"}) {
+            assertEquals(name, mapped.getName(mapped.wideSearch(name)));
+        }
+
+        TreeNode unicode = new TreeNode((String) null);
+        new TreeNode("корень", unicode);
+        new TreeNode("", unicode);
+        TreeNodeBinaryFormat.write(unicode, file);
+        mapped = TreeNodeBinaryFormat.read(file);
+        assertEquals(0, mapped.wideSearch((String) null));
+        assertEquals("корень", mapped.getName(mapped.wideSearch("корень")));
+        assertEquals("", mapped.getName(mapped.wideSearch("")));
+        assertEquals(unicode.toString(), mapped.toString());
+    }
+
+    /**
+     * Name table of the frozen tree which has grown several times is written as is
+     */
+    @Test
+    public void manyNamesTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("tree.bin");
+        TreeNode root = new TreeNode("root");
+        for (int i = 0; i < 1000; i++) {
+            new TreeNode("n" + i, new TreeNode("n" + (999 - i), root));
+        }
+        TreeNodeBinaryFormat.write(root, file);
+        MappedTree mapped = TreeNodeBinaryFormat.read(file);
+        assertEquals(1001, mapped.nameCount());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(1000 - i, mapped.wideSearch("n" + i));
+        }
+        assertEquals(MappedTree.NO_NODE, mapped.wideSearch("n1000"));
+        assertEquals(root.toString(), mapped.toString());
+    }
+
+    @Test
+    public void readDamagedFileTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("tree.bin");
+        Files.writeString(file, "not a tree");
+        assertThrows(IOException.class, () -> TreeNodeBinaryFormat.read(file));
+        Files.writeString(file, "not a tree, but the file is long enough");
+        assertThrows(IOException.class, () -> TreeNodeBinaryFormat.read(file));
+
+        TreeNodeBinaryFormat.write(tree, file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> TreeNodeBinaryFormat.read(file));
+    }
+
+    private TreeNode tree;
+    private TreeNode secondC;
+
+    /**
+     * Resets tree to:
+     * "1
+     * 1 1A 1B 1C
+     * 1A 1A1 1A2 1A3
+     * 1C 1A1 1C2"
+     */
+    @BeforeEach
+    public void resetTree() {
+        tree = new TreeNode("1");
+        TreeNode secondA = new TreeNode("1A", tree);
+        new TreeNode("1B", tree);
+        secondC = new TreeNode("1C", tree);
+        new TreeNode("1A1", secondA);
+        new TreeNode("1A2", secondA);
+        new TreeNode("1A3", secondA);
+        new TreeNode("1A1", secondC);
+        new TreeNode("1C2", secondC);
+    }
+}
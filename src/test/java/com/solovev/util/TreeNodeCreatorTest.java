@@ -3,10 +3,19 @@ package com.solovev.util;
 import com.solovev.model.TreeNode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EmptySource;
 import org.junit.jupiter.params.provider.NullSource;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
 
@@ -54,6 +63,94 @@ public class TreeNodeCreatorTest {
                 a1 a1a a1b a1c""", buildTree(scan,delimiter).toString());
     }
 
+    /**
+     * Every line searches the tree by name, so big tree is built in time only if search does not traverse the tree
+     */
+    @Test
+    @Timeout(10)
+    public void buildBigTreeTest() {
+        int nodes = 200_000;
+        StringBuilder input = new StringBuilder("n0");
+        for (int i = 1; i < nodes; i++) {
+            input.append("\nn").append((i - 1) / 2).append(delimiter).append('n').append(i);
+        }
+        TreeNode tree = buildTree(new Scanner(input.toString()), delimiter);
+
+        TreeNode last = tree.wideSearch("n" + (nodes - 1)).orElseThrow();
+        assertEquals("n" + (nodes / 2 - 1), last.getParent().getName());
+        int count = 0;
+        for (TreeNode ignored : tree) {
+            count++;
+        }
+        assertEquals(nodes, count);
+    }
+
+    /**
+     * File is read by tiny windows, so lines cross windows and some of them are longer than the window
+     */
+    @Test
+    public void buildTreeFileTest(@TempDir Path directory) throws IOException {
+        String input = """
+                1
+                1 a c s d
+                1 f r
+                a a1 a2 a3
+                a1 a1a a1b a1c
+                f f1 f2
+                a1c a
+                a a
+                s s1""";
+        String expected = """
+                1
+                1 a c s d f r
+                a a1 a2 a3
+                f f1 f2
+                a1 a1a a1b a1c""";
+        Path file = directory.resolve("tree.txt");
+        Files.writeString(file, input.replace("\n", "\r\n"));
+        for (int window : new int[]{1, 3, 7, 1 << 20}) {
+            assertEquals(expected, buildTree(file, delimiter, window).toString());
+        }
+        assertEquals(expected, buildTree(file, delimiter).toString());
+
+        Files.writeString(file, "корень\nкорень::ветвь::::лист\nветвь::почка\n", StandardCharsets.UTF_8);
+        assertEquals("""
+                корень
+                корень ветвь лист
+                ветвь почка""", buildTree(file, "::", 5).toString());
+
+        Files.writeString(file, "");
+        assertNull(buildTree(file, delimiter).getName());
+        Files.writeString(file, "root\nroot child\nmissing child");
+        assertThrows(NoSuchElementException.class, () -> buildTree(file, delimiter));
+        assertThrows(IllegalArgumentException.class, () -> buildTree(file, ""));
+    }
+
+    /**
+     * Tree written by the tree node is read back the same by both the scanner and the file reader
+     */
+    @Test
+    public void writeToRoundTripTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("tree.txt");
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            firstNode.writeTo(writer);
+        }
+        assertEquals(firstNode.toString(), Files.readString(file));
+        assertEquals(firstNode, buildTree(file, delimiter));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            firstNode.writeTo(channel, "::");
+        }
+        assertEquals(firstNode, buildTree(file, "::"));
+        try (Scanner scan = new Scanner(file)) {
+            assertEquals(firstNode, buildTree(scan, "::"));
+        }
+
+        StringBuilder single = new StringBuilder();
+        thirdC1.writeTo(single, "::");
+        assertEquals("1C1", single.toString());
+    }
+
     @Test
     void buildTreeTest() {
         String thirdC1Creator = thirdC1.getName();